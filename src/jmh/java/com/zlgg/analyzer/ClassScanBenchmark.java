@@ -0,0 +1,95 @@
+package com.zlgg.analyzer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * 类文件扫描方式基准测试
+ * 对比ASM逐条访问指令（ClassReader.accept）与只读常量池两种方式扫描同一JAR中所有类的耗时。
+ * 类文件在Setup阶段全部读入内存，测量结果不包含IO
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassScanBenchmark {
+    
+    /**
+     * 被扫描的JAR，为空时使用jackson-databind
+     */
+    @Param("")
+    private String jarPath;
+    
+    private List<byte[]> classFiles;
+    
+    @Setup
+    public void loadClasses() throws Exception {
+        Path jar = jarPath.isEmpty()
+            ? Paths.get(ObjectMapper.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+            : Paths.get(jarPath);
+        classFiles = readClassFiles(jar);
+    }
+    
+    @Benchmark
+    public int bytecode() {
+        int dependencies = 0;
+        for (byte[] classFile : classFiles) {
+            DependencyCollector collector = new DependencyCollector();
+            new ClassReader(classFile).accept(collector, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+            dependencies += collector.getDependencies().size();
+        }
+        return dependencies;
+    }
+    
+    @Benchmark
+    public int constantPool() {
+        int dependencies = 0;
+        for (byte[] classFile : classFiles) {
+            dependencies += ConstantPoolScanner.scan(classFile, 0, classFile.length).getDependencies().size();
+        }
+        return dependencies;
+    }
+    
+    static List<byte[]> readClassFiles(Path jar) throws IOException {
+        List<byte[]> classFiles = new ArrayList<>();
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                if (entry.getName().endsWith(".class") && !entry.isDirectory()) {
+                    try (InputStream in = jarFile.getInputStream(entry)) {
+                        classFiles.add(in.readAllBytes());
+                    }
+                }
+            }
+        }
+        return classFiles;
+    }
+}
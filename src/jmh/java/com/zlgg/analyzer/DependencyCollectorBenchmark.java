@@ -0,0 +1,50 @@
+package com.zlgg.analyzer;
+
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DependencyCollector单个类的访问耗时
+ * 使用JarAnalyzer自身的类文件，它的常量池和方法体规模接近一般的业务类
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DependencyCollectorBenchmark {
+    
+    private byte[] classFile;
+    
+    @Setup
+    public void loadClass() throws IOException {
+        try (InputStream in = JarAnalyzer.class.getResourceAsStream("JarAnalyzer.class")) {
+            classFile = in.readAllBytes();
+        }
+    }
+    
+    @Benchmark
+    public Set<String> collect() {
+        DependencyCollector collector = new DependencyCollector();
+        new ClassReader(classFile).accept(collector, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        return collector.getDependencies();
+    }
+}
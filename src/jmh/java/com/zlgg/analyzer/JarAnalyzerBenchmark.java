@@ -0,0 +1,78 @@
+package com.zlgg.analyzer;
+
+import com.zlgg.model.AnalysisOptions;
+import com.zlgg.model.AnalysisResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JarAnalyzer.analyze 端到端基准测试
+ * 分别分析包含1千、1万、10万个类的合成JAR，不使用分析缓存，jdeps只在需要时运行；
+ * nestedJars大于0时生成Spring Boot布局的JAR，同时分析BOOT-INF/lib/下的内嵌JAR
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class JarAnalyzerBenchmark {
+    
+    @Param({"1000", "10000", "100000"})
+    private int classCount;
+    
+    @Param({"8"})
+    private int fanOut;
+    
+    @Param({"0"})
+    private int nestedJars;
+    
+    private Path jar;
+    private JarAnalyzer analyzer;
+    
+    @Setup(Level.Trial)
+    public void generateJar() throws IOException {
+        jar = Files.createTempFile("synthetic-" + classCount + "-", ".jar");
+        SyntheticJarGenerator.builder()
+            .classCount(classCount)
+            .fanOut(fanOut)
+            .nestedJars(nestedJars)
+            .fxmlFiles(4)
+            .build()
+            .write(jar);
+        analyzer = new JarAnalyzer(AnalysisOptions.builder()
+            .cacheDirectory(null)
+            .concurrentJdeps(false)
+            .analyzeNestedJars(nestedJars > 0)
+            .build());
+    }
+    
+    @TearDown(Level.Trial)
+    public void deleteJar() throws IOException {
+        Files.deleteIfExists(jar);
+    }
+    
+    @Benchmark
+    public AnalysisResult analyze() throws IOException {
+        return analyzer.analyze(jar, progress -> { });
+    }
+}
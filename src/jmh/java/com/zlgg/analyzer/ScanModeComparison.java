@@ -0,0 +1,58 @@
+package com.zlgg.analyzer;
+
+import com.zlgg.model.AnalysisOptions;
+import com.zlgg.model.AnalysisResult;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 扫描方式准确性对比
+ * 分别用BYTECODE和CONSTANT_POOL两种方式完整分析同一个JAR（不使用缓存），
+ * 输出耗时以及两者得到的模块集合差异
+ *
+ * 用法: java -cp ... com.zlgg.analyzer.ScanModeComparison app.jar [更多JAR...]
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+public class ScanModeComparison {
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("用法: ScanModeComparison <jar> [jar...]");
+            System.exit(2);
+        }
+        boolean allMatched = true;
+        for (String arg : args) {
+            Path jar = Paths.get(arg);
+            AnalysisResult bytecode = analyze(jar, AnalysisOptions.ScanMode.BYTECODE);
+            AnalysisResult constantPool = analyze(jar, AnalysisOptions.ScanMode.CONSTANT_POOL);
+            
+            Set<String> missing = new TreeSet<>(bytecode.getRequiredModules());
+            missing.removeAll(constantPool.getRequiredModules());
+            Set<String> extra = new TreeSet<>(constantPool.getRequiredModules());
+            extra.removeAll(bytecode.getRequiredModules());
+            allMatched &= missing.isEmpty() && extra.isEmpty();
+            
+            System.out.println(jar.getFileName());
+            System.out.printf("  BYTECODE:      %6d ms, %d 个模块%n",
+                              bytecode.getAnalysisTimeMs(), bytecode.getRequiredModules().size());
+            System.out.printf("  CONSTANT_POOL: %6d ms, %d 个模块%n",
+                              constantPool.getAnalysisTimeMs(), constantPool.getRequiredModules().size());
+            System.out.println("  缺少的模块: " + (missing.isEmpty() ? "无" : missing));
+            System.out.println("  多出的模块: " + (extra.isEmpty() ? "无" : extra));
+        }
+        System.exit(allMatched ? 0 : 1);
+    }
+    
+    private static AnalysisResult analyze(Path jar, AnalysisOptions.ScanMode scanMode) throws Exception {
+        AnalysisOptions options = AnalysisOptions.builder()
+            .scanMode(scanMode)
+            .cacheDirectory(null)
+            .build();
+        return new JarAnalyzer(options).analyze(jar, progress -> { });
+    }
+}
@@ -0,0 +1,348 @@
+package com.zlgg.analyzer;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * 合成JAR生成器
+ * 用ASM生成指定数量的类，每个类引用若干个其他合成类和所选JDK模块中的类型，
+ * 可以按Spring Boot的布局生成BOOT-INF/lib/下的内嵌JAR，以及引用JavaFX控件的FXML文件。
+ * 生成结果只由参数和随机种子决定，可以在不同机器上得到相同的JAR，使吞吐量数据可以相互比较
+ *
+ * 用法: SyntheticJarGenerator &lt;输出文件&gt; [类数量] [内嵌JAR数量] [FXML数量]
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+public final class SyntheticJarGenerator {
+    
+    private static final String PACKAGE = "com/example/synthetic";
+    private static final String LIBRARY_PACKAGE = "com/example/lib";
+    private static final String BOOT_CLASSES = "BOOT-INF/classes/";
+    private static final String BOOT_LIB = "BOOT-INF/lib/";
+    private static final int CLASSES_PER_PACKAGE = 200;
+    
+    // 每个可选JDK模块中的一个代表类型
+    private static final Map<String, String> MODULE_TYPES = new LinkedHashMap<>();
+    
+    static {
+        MODULE_TYPES.put("java.base", "java/util/concurrent/ExecutorService");
+        MODULE_TYPES.put("java.sql", "java/sql/Connection");
+        MODULE_TYPES.put("java.logging", "java/util/logging/Logger");
+        MODULE_TYPES.put("java.xml", "javax/xml/parsers/DocumentBuilder");
+        MODULE_TYPES.put("java.desktop", "java/awt/Image");
+        MODULE_TYPES.put("java.naming", "javax/naming/Context");
+        MODULE_TYPES.put("java.management", "java/lang/management/MemoryMXBean");
+        MODULE_TYPES.put("java.scripting", "javax/script/ScriptEngine");
+        MODULE_TYPES.put("java.net.http", "java/net/http/HttpClient");
+        MODULE_TYPES.put("java.prefs", "java/util/prefs/Preferences");
+        MODULE_TYPES.put("java.rmi", "java/rmi/Remote");
+        MODULE_TYPES.put("java.compiler", "javax/tools/JavaCompiler");
+        MODULE_TYPES.put("java.instrument", "java/lang/instrument/Instrumentation");
+        MODULE_TYPES.put("java.security.sasl", "javax/security/sasl/SaslClient");
+        MODULE_TYPES.put("jdk.httpserver", "com/sun/net/httpserver/HttpServer");
+        MODULE_TYPES.put("jdk.unsupported", "sun/misc/Unsafe");
+    }
+    
+    private static final String[] FXML_CONTROLS = {
+        "Button", "Label", "TextField", "TableView", "ListView", "ComboBox", "CheckBox", "ProgressBar"
+    };
+    
+    private final int classCount;
+    private final int fanOut;
+    private final List<String> jdkTypes;
+    private final int nestedJars;
+    private final int classesPerNestedJar;
+    private final int fxmlFiles;
+    private final long seed;
+    
+    private SyntheticJarGenerator(Builder builder) {
+        this.classCount = builder.classCount;
+        this.fanOut = builder.fanOut;
+        this.nestedJars = builder.nestedJars;
+        this.classesPerNestedJar = builder.classesPerNestedJar;
+        this.fxmlFiles = builder.fxmlFiles;
+        this.seed = builder.seed;
+        List<String> types = new ArrayList<>();
+        for (String module : builder.jdkModules) {
+            types.add(MODULE_TYPES.get(module));
+        }
+        this.jdkTypes = Collections.unmodifiableList(types);
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * 可以通过 {@link Builder#jdkModules(String...)} 引用的JDK模块
+     */
+    public static Set<String> supportedJdkModules() {
+        return Collections.unmodifiableSet(MODULE_TYPES.keySet());
+    }
+    
+    /**
+     * 生成JAR文件
+     */
+    public void write(Path jar) throws IOException {
+        Random random = new Random(seed);
+        boolean springBoot = nestedJars > 0;
+        String classPrefix = springBoot ? BOOT_CLASSES : "";
+        
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (springBoot) {
+            attributes.put(Attributes.Name.MAIN_CLASS, "org.springframework.boot.loader.JarLauncher");
+            attributes.putValue("Start-Class", className(PACKAGE, 0).replace('/', '.'));
+            attributes.putValue("Spring-Boot-Classes", BOOT_CLASSES);
+            attributes.putValue("Spring-Boot-Lib", BOOT_LIB);
+        } else {
+            attributes.put(Attributes.Name.MAIN_CLASS, className(PACKAGE, 0).replace('/', '.'));
+        }
+        
+        try (OutputStream file = Files.newOutputStream(jar);
+             JarOutputStream out = new JarOutputStream(file, manifest)) {
+            writeClasses(out, classPrefix, PACKAGE, classCount, random);
+            
+            for (int i = 0; i < fxmlFiles; i++) {
+                out.putNextEntry(new JarEntry(classPrefix + "views/view" + i + ".fxml"));
+                out.write(generateFxml(i, random).getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+            
+            // Spring Boot要求内嵌JAR以STORED方式存储，需要事先计算大小和CRC
+            for (int i = 0; i < nestedJars; i++) {
+                byte[] nested = generateNestedJar(i, random);
+                CRC32 crc = new CRC32();
+                crc.update(nested);
+                JarEntry entry = new JarEntry(BOOT_LIB + "lib-" + i + ".jar");
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(nested.length);
+                entry.setCompressedSize(nested.length);
+                entry.setCrc(crc.getValue());
+                out.putNextEntry(entry);
+                out.write(nested);
+                out.closeEntry();
+            }
+        }
+    }
+    
+    /**
+     * 生成的类引用的JDK模块（不含javafx，FXML文件会额外引入javafx模块）
+     */
+    public Set<String> getJdkModules() {
+        TreeSet<String> modules = new TreeSet<>();
+        for (Map.Entry<String, String> entry : MODULE_TYPES.entrySet()) {
+            if (jdkTypes.contains(entry.getValue())) {
+                modules.add(entry.getKey());
+            }
+        }
+        return modules;
+    }
+    
+    private byte[] generateNestedJar(int index, Random random) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        try (JarOutputStream out = new JarOutputStream(buffer, manifest)) {
+            writeClasses(out, "", LIBRARY_PACKAGE + index, classesPerNestedJar, random);
+        }
+        return buffer.toByteArray();
+    }
+    
+    private void writeClasses(JarOutputStream out, String prefix, String packageName,
+                              int count, Random random) throws IOException {
+        for (int i = 0; i < count; i++) {
+            out.putNextEntry(new JarEntry(prefix + className(packageName, i) + ".class"));
+            out.write(generateClass(packageName, i, count, random));
+            out.closeEntry();
+        }
+    }
+    
+    static String className(String packageName, int index) {
+        return packageName + "/p" + (index / CLASSES_PER_PACKAGE) + "/Class" + index;
+    }
+    
+    private byte[] generateClass(String packageName, int index, int count, Random random) {
+        String name = className(packageName, index);
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V11, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, "java/lang/Object", null);
+        
+        // JDK类型以字段的形式引用
+        for (int i = 0; i < 2 && !jdkTypes.isEmpty(); i++) {
+            String type = jdkTypes.get(random.nextInt(jdkTypes.size()));
+            writer.visitField(Opcodes.ACC_PRIVATE, "jdk" + i, "L" + type + ";", null, null).visitEnd();
+        }
+        
+        MethodVisitor init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        init.visitCode();
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        init.visitInsn(Opcodes.RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+        
+        MethodVisitor touch = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "touch", "()V", null, null);
+        touch.visitCode();
+        touch.visitInsn(Opcodes.RETURN);
+        touch.visitMaxs(0, 0);
+        touch.visitEnd();
+        
+        // 对同一JAR中其他类的引用以静态方法调用的形式出现在方法体中
+        MethodVisitor run = writer.visitMethod(Opcodes.ACC_PUBLIC, "run", "()V", null, null);
+        run.visitCode();
+        for (int i = 0; i < fanOut && count > 1; i++) {
+            int target = random.nextInt(count);
+            if (target != index) {
+                run.visitMethodInsn(Opcodes.INVOKESTATIC, className(packageName, target), "touch", "()V", false);
+            }
+        }
+        run.visitInsn(Opcodes.RETURN);
+        run.visitMaxs(0, 0);
+        run.visitEnd();
+        
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+    
+    private String generateFxml(int index, Random random) {
+        StringBuilder fxml = new StringBuilder();
+        fxml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n\n");
+        fxml.append("<?import javafx.scene.control.*?>\n");
+        fxml.append("<?import javafx.scene.layout.*?>\n\n");
+        String controller = className(PACKAGE, index % Math.max(1, classCount)).replace('/', '.');
+        fxml.append("<VBox xmlns=\"http://javafx.com/javafx\" xmlns:fx=\"http://javafx.com/fxml\" fx:controller=\"")
+            .append(controller).append("\">\n");
+        for (int i = 0; i < 8; i++) {
+            String control = FXML_CONTROLS[random.nextInt(FXML_CONTROLS.length)];
+            fxml.append("    <").append(control).append(" fx:id=\"control").append(i).append("\"/>\n");
+        }
+        fxml.append("</VBox>\n");
+        return fxml.toString();
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("用法: SyntheticJarGenerator <输出文件> [类数量] [内嵌JAR数量] [FXML数量]");
+            System.exit(2);
+        }
+        Builder builder = builder();
+        if (args.length > 1) {
+            builder.classCount(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            builder.nestedJars(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            builder.fxmlFiles(Integer.parseInt(args[3]));
+        }
+        SyntheticJarGenerator generator = builder.build();
+        Path output = Paths.get(args[0]);
+        generator.write(output);
+        System.out.printf("已生成 %s (%d 字节)，引用JDK模块: %s%n",
+                          output, Files.size(output), generator.getJdkModules());
+    }
+    
+    public static class Builder {
+        private int classCount = 1000;
+        private int fanOut = 8;
+        private List<String> jdkModules = new ArrayList<>(MODULE_TYPES.keySet());
+        private int nestedJars;
+        private int classesPerNestedJar = 200;
+        private int fxmlFiles;
+        private long seed = 42;
+        
+        /**
+         * 主JAR中的类数量
+         */
+        public Builder classCount(int classCount) {
+            this.classCount = classCount;
+            return this;
+        }
+        
+        /**
+         * 每个类引用同一JAR中其他类的数量
+         */
+        public Builder fanOut(int fanOut) {
+            this.fanOut = fanOut;
+            return this;
+        }
+        
+        /**
+         * 生成的类引用的JDK模块，默认引用所有支持的模块
+         */
+        public Builder jdkModules(String... modules) {
+            this.jdkModules = new ArrayList<>(Arrays.asList(modules));
+            return this;
+        }
+        
+        /**
+         * BOOT-INF/lib/下的内嵌JAR数量，大于0时按Spring Boot的布局生成
+         */
+        public Builder nestedJars(int nestedJars) {
+            this.nestedJars = nestedJars;
+            return this;
+        }
+        
+        public Builder classesPerNestedJar(int classesPerNestedJar) {
+            this.classesPerNestedJar = classesPerNestedJar;
+            return this;
+        }
+        
+        /**
+         * 引用JavaFX控件的FXML文件数量
+         */
+        public Builder fxmlFiles(int fxmlFiles) {
+            this.fxmlFiles = fxmlFiles;
+            return this;
+        }
+        
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+        
+        public SyntheticJarGenerator build() {
+            if (classCount < 1) {
+                throw new IllegalArgumentException("类数量必须大于0: " + classCount);
+            }
+            if (fanOut < 0 || nestedJars < 0 || fxmlFiles < 0) {
+                throw new IllegalArgumentException("扇出、内嵌JAR数量和FXML数量不能为负数");
+            }
+            if (nestedJars > 0 && classesPerNestedJar < 1) {
+                throw new IllegalArgumentException("内嵌JAR的类数量必须大于0: " + classesPerNestedJar);
+            }
+            for (String module : jdkModules) {
+                if (!MODULE_TYPES.containsKey(module)) {
+                    throw new IllegalArgumentException("不支持的JDK模块: " + module + "，可选: " + MODULE_TYPES.keySet());
+                }
+            }
+            return new SyntheticJarGenerator(this);
+        }
+    }
+}
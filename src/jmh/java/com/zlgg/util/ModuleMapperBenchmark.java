@@ -0,0 +1,112 @@
+package com.zlgg.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ModuleMapper.getModuleForClass 查找吞吐量
+ * 类名混合了JDK各模块、JavaFX、深层嵌套包和第三方库（查找不到模块）的情况，
+ * 与分析真实JAR时依赖的分布相近。
+ * hashMapLookup 是改用字典树之前逐级截取父包、查询HashMap的实现，作为对比基线
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModuleMapperBenchmark {
+    
+    static final String[] CLASS_NAMES = {
+        "java.lang.String",
+        "java.util.List",
+        "java.util.concurrent.ConcurrentHashMap",
+        "java.util.concurrent.atomic.AtomicInteger",
+        "java.io.InputStream",
+        "java.nio.file.Path",
+        "java.sql.Connection",
+        "java.util.logging.Logger",
+        "javax.xml.parsers.DocumentBuilderFactory",
+        "org.w3c.dom.Document",
+        "java.awt.image.BufferedImage",
+        "javax.swing.JFrame",
+        "javax.naming.InitialContext",
+        "java.lang.management.ManagementFactory",
+        "javax.management.MBeanServer",
+        "javax.script.ScriptEngineManager",
+        "java.net.http.HttpClient",
+        "javax.crypto.Cipher",
+        "sun.misc.Unsafe",
+        "jdk.internal.misc.Unsafe",
+        "javafx.scene.control.Button",
+        "javafx.application.Application",
+        "com.sun.javafx.application.PlatformImpl",
+        "org.springframework.boot.SpringApplication",
+        "org.springframework.context.annotation.Configuration",
+        "com.fasterxml.jackson.databind.ObjectMapper",
+        "org.slf4j.LoggerFactory",
+        "ch.qos.logback.classic.Logger",
+        "cn.hutool.core.util.StrUtil",
+        "org.objectweb.asm.ClassReader",
+        "com.example.service.impl.deep.nested.pkg.OrderServiceImpl",
+        "NoPackageClass"
+    };
+    
+    private ModuleMapper moduleMapper;
+    private Map<String, String> packageToModuleMap;
+    
+    @Setup
+    public void createMapper() {
+        moduleMapper = new ModuleMapper();
+        packageToModuleMap = moduleMapper.getPackageToModuleMap();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(32)
+    public void getModuleForClass(Blackhole blackhole) {
+        for (String className : CLASS_NAMES) {
+            blackhole.consume(moduleMapper.getModuleForClass(className));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(32)
+    public void hashMapLookup(Blackhole blackhole) {
+        for (String className : CLASS_NAMES) {
+            blackhole.consume(hashMapLookup(packageToModuleMap, className));
+        }
+    }
+    
+    static String hashMapLookup(Map<String, String> packageToModuleMap, String className) {
+        int lastDot = className.lastIndexOf('.');
+        String packageName = lastDot > 0 ? className.substring(0, lastDot) : "";
+        String module = packageToModuleMap.get(packageName);
+        if (module != null) {
+            return module;
+        }
+        while (packageName.contains(".")) {
+            packageName = packageName.substring(0, packageName.lastIndexOf('.'));
+            module = packageToModuleMap.get(packageName);
+            if (module != null) {
+                return module;
+            }
+        }
+        return null;
+    }
+}
@@ -2,7 +2,13 @@ package com.zlgg;
 
 public class App {
 
+    /**
+     * 带参数启动时进入命令行模式，不加载JavaFX；否则启动图形界面
+     */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(JREGenerateCli.run(args));
+        }
         JREGenerateApplication.main(args);
     }
 }
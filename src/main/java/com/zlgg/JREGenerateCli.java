@@ -0,0 +1,554 @@
+package com.zlgg;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zlgg.analyzer.BatchJarAnalyzer;
+import com.zlgg.analyzer.JarAnalyzer;
+import com.zlgg.builder.JREBuilder;
+import com.zlgg.model.AnalysisMetrics;
+import com.zlgg.model.AnalysisOptions;
+import com.zlgg.model.AnalysisResult;
+import com.zlgg.model.BuildConfiguration;
+import com.zlgg.util.CacheDirectories;
+import com.zlgg.util.CancellationToken;
+import com.zlgg.util.LogManager;
+import com.zlgg.util.LogSink;
+import com.zlgg.util.ModuleMapper;
+import com.zlgg.util.ProgressReporter;
+import com.zlgg.util.TaskExecutors;
+import com.zlgg.util.TaskPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 命令行入口（无界面模式）
+ * 在没有显示器的构建机上分析JAR并构建JRE。整个流程不会加载任何JavaFX类，
+ * 执行结果通过退出码返回：
+ * 0 全部成功，1 至少一个JAR分析或构建失败，2 参数错误，130 被Ctrl+C取消。
+ * 取消时会结束正在运行的jlink/jdeps进程并删除未完成的JRE目录；
+ * 使用--jlink-in-process时jlink在当前JVM中运行，无法中途停止
+ *
+ * 用法: java -jar JREGenerate.jar [选项] app.jar [更多JAR...]
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+public class JREGenerateCli {
+    
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILURE = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_CANCELLED = 130;
+    
+    // 命令行模式的日志配置，以及其中使用的日志级别属性
+    private static final String LOGBACK_CONFIG_PROPERTY = "logback.configurationFile";
+    private static final String CLI_LOGBACK_CONFIG = "logback-cli.xml";
+    private static final String CLI_LOG_LEVEL_PROPERTY = "jregenerate.cli.logLevel";
+    
+    // 收到Ctrl+C后等待清理完成的最长时间
+    private static final long CANCEL_WAIT_SECONDS = 10;
+    
+    private static final String USAGE = String.join(System.lineSeparator(),
+        "用法: java -jar JREGenerate.jar [选项] <jar> [jar...]",
+        "",
+        "选项:",
+        "  -o, --output <目录>          JRE输出目录；多个JAR时每个JAR输出到 <目录>/<JAR名称>",
+        "  -a, --analyze-only           只分析并输出所需模块，不构建JRE",
+        "      --javafx-sdk <目录>      JavaFX SDK路径（包含javafx-jmods），指定后构建时包含JavaFX",
+        "      --advanced               启用高级功能模块（javaagent、JNI、加密等）",
+        "      --no-compress            不压缩JRE",
+        "      --compression-level <n>  压缩级别 0-2，默认2",
+        "      --keep-debug             保留调试信息",
+        "      --reachability           启用可达性分析",
+        "      --root <类名>            可达性分析的根类，可重复，支持 包名.*",
+        "      --scan-mode <模式>       类文件扫描方式: bytecode（默认）或 constant-pool",
+        "      --parallelism <n>        分析并行度，默认为CPU核数",
+        "  -j, --jobs <n>               只分析多个JAR时同时分析的JAR数量，默认等于并行度",
+        "      --cache-dir <目录>       缓存根目录，指定后启用分析缓存、JRE构建缓存和JDK包索引（默认读取系统属性 jregenerate.cache.dir，未指定时不使用缓存）",
+        "      --no-cache               不使用任何缓存，忽略 --cache-dir",
+        "      --jlink-in-process       在当前JVM中运行jlink，省去启动进程的开销，但Ctrl+C无法中途停止jlink",
+        "      --analysis-threads <n>   共享analysis线程池的线程数（所有分析合计的最大并发度），默认为CPU核数",
+        "      --io-threads <n>         共享io线程池的线程数（进程输出读取、后台jdeps），不小于2",
+        "      --background-threads <n> 共享background线程池的线程数（同时分析的JAR数量上限）",
+        "      --metrics                输出每个分析阶段的耗时、读取字节、条目、类和内存分配，以及线程池统计",
+        "      --json                   每个JAR的分析结果（含分阶段指标）输出为一行JSON，其他信息输出到标准错误",
+        "  -q, --quiet                  只输出结果和错误",
+        "  -h, --help                   显示帮助");
+    
+    private final PrintStream out;
+    private final PrintStream err;
+    
+    private final List<Path> jars = new ArrayList<>();
+    private Path outputDir;
+    private boolean analyzeOnly;
+    private Path javafxSdk;
+    private boolean advanced;
+    private boolean compress = true;
+    private int compressionLevel = 2;
+    private boolean stripDebug = true;
+    private boolean quiet;
+    private boolean useCache = true;
+    private Path cacheDir = CacheDirectories.root();
+    private boolean jlinkInProcess;
+    private boolean printMetrics;
+    private boolean json;
+    private int jobs;
+    // 共享线程池的线程数，未指定时使用系统属性或默认值
+    private Integer analysisThreads;
+    private Integer ioThreads;
+    private Integer backgroundThreads;
+    private final AnalysisOptions.Builder analysisOptions = AnalysisOptions.builder();
+    private final CancellationToken cancellation = new CancellationToken();
+    
+    JREGenerateCli(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+    
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+    
+    /**
+     * 执行命令行，返回退出码
+     */
+    public static int run(String[] args) {
+        configureLogging(args);
+        JREGenerateCli cli = new JREGenerateCli(System.out, System.err);
+        // Ctrl+C时JVM开始关闭，关闭钩子取消正在进行的工作，并等待进程结束和目录清理完成
+        CountDownLatch finished = new CountDownLatch(1);
+        Thread cancelHook = new Thread(() -> {
+            if (finished.getCount() > 0) {
+                cli.err.println("正在取消...");
+                cli.cancellation.cancel();
+                try {
+                    finished.await(CANCEL_WAIT_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "cli-cancel");
+        Runtime.getRuntime().addShutdownHook(cancelHook);
+        try {
+            return cli.execute(args);
+        } finally {
+            finished.countDown();
+            try {
+                Runtime.getRuntime().removeShutdownHook(cancelHook);
+            } catch (IllegalStateException e) {
+                // JVM已经在关闭中
+            }
+        }
+    }
+    
+    /**
+     * 在第一次使用日志之前切换到命令行的日志配置：日志只输出到标准错误，默认INFO级别，-q时只输出WARN及以上，
+     * 保证标准输出只有分析结果（--json时只有JSON）。通过logback.configurationFile指定了配置时不覆盖
+     */
+    static void configureLogging(String[] args) {
+        if (System.getProperty(LOGBACK_CONFIG_PROPERTY) != null) {
+            return;
+        }
+        List<String> arguments = Arrays.asList(args);
+        boolean quietMode = arguments.contains("-q") || arguments.contains("--quiet");
+        System.setProperty(CLI_LOG_LEVEL_PROPERTY, quietMode ? "WARN" : "INFO");
+        System.setProperty(LOGBACK_CONFIG_PROPERTY, CLI_LOGBACK_CONFIG);
+    }
+    
+    /**
+     * 日志在第一次使用时才获取，不能在类加载时初始化，否则configureLogging来不及生效
+     */
+    private static Logger logger() {
+        return LoggerFactory.getLogger(JREGenerateCli.class);
+    }
+    
+    int execute(String[] args) {
+        try {
+            if (!parseArguments(args)) {
+                out.println(USAGE);
+                return EXIT_OK;
+            }
+            validateArguments();
+        } catch (IllegalArgumentException e) {
+            err.println("错误: " + e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        
+        AnalysisOptions options;
+        try {
+            analysisOptions.cacheDirectory(useCache ? CacheDirectories.analysis(cacheDir) : null);
+            ModuleMapper.setIndexDirectory(useCache ? CacheDirectories.modules(cacheDir) : null);
+            options = analysisOptions.build();
+            configureThreads();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            err.println("错误: " + e.getMessage());
+            return EXIT_USAGE;
+        }
+        
+        if (!quiet) {
+            LogManager.setUILogArea(new ConsoleLogSink(messages(), err));
+        }
+        
+        int exitCode = analyzeOnly && jars.size() > 1 ? analyzeBatch(options) : processJars(options);
+        if (printMetrics) {
+            messages().println("线程池:");
+            for (TaskPool.Stats stats : TaskExecutors.stats()) {
+                messages().println("  " + stats);
+            }
+        }
+        return exitCode;
+    }
+    
+    /**
+     * 按命令行参数设置共享线程池的线程数，必须在使用线程池之前调用
+     */
+    private void configureThreads() {
+        if (analysisThreads == null && ioThreads == null && backgroundThreads == null) {
+            return;
+        }
+        TaskExecutors.Settings.Builder threads = TaskExecutors.Settings.fromSystemProperties().toBuilder();
+        if (analysisThreads != null) {
+            threads.analysisThreads(analysisThreads);
+        }
+        if (ioThreads != null) {
+            threads.ioThreads(ioThreads);
+        }
+        if (backgroundThreads != null) {
+            threads.backgroundThreads(backgroundThreads);
+        }
+        TaskExecutors.configure(threads.build());
+    }
+    
+    /**
+     * 依次分析（并构建）每个JAR
+     */
+    private int processJars(AnalysisOptions options) {
+        JarAnalyzer analyzer = new JarAnalyzer(options);
+        int failed = 0;
+        for (Path jar : jars) {
+            if (!processJar(analyzer, jar)) {
+                failed++;
+            }
+            if (cancellation.isCancelled()) {
+                err.println("已取消");
+                return EXIT_CANCELLED;
+            }
+        }
+        
+        if (jars.size() > 1) {
+            messages().printf("完成: %d 个成功, %d 个失败%n", jars.size() - failed, failed);
+        }
+        return failed == 0 ? EXIT_OK : EXIT_FAILURE;
+    }
+    
+    /**
+     * 批量分析多个JAR，每个JAR完成后立即输出结果
+     */
+    private int analyzeBatch(AnalysisOptions options) {
+        BatchJarAnalyzer batch = new BatchJarAnalyzer(options, jobs > 0 ? jobs : options.getParallelism());
+        try {
+            BatchJarAnalyzer.Summary summary = batch.analyze(jars, new BatchJarAnalyzer.Listener() {
+                @Override
+                public void onResult(Path jarPath, AnalysisResult result) {
+                    printResult(jarPath, result);
+                }
+                
+                @Override
+                public void onFailure(Path jarPath, Exception error) {
+                    err.println("错误: " + jarPath + ": " + error.getMessage());
+                }
+            }, cancellation);
+            messages().println("完成: " + summary);
+            return summary.getFailedJars() == 0 ? EXIT_OK : EXIT_FAILURE;
+        } catch (CancellationException e) {
+            err.println("已取消");
+            return EXIT_CANCELLED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            err.println("错误: 批量分析被中断");
+            return EXIT_FAILURE;
+        }
+    }
+    
+    private void printResult(Path jar, AnalysisResult result) {
+        if (json) {
+            printJson(jar, result);
+            return;
+        }
+        out.printf("%s: %d 个模块, %d 个类, %dms%n", jar.getFileName(), result.getRequiredModules().size(),
+                   result.getDependencyGraph().getClassCount(), result.getAnalysisTimeMs());
+        out.println(String.join(",", new TreeSet<>(result.getRequiredModules())));
+        if (printMetrics) {
+            for (Map.Entry<AnalysisMetrics.Phase, AnalysisMetrics.PhaseMetrics> phase
+                    : result.getMetrics().getPhases().entrySet()) {
+                out.printf("  %s: %s%n", phase.getKey().getDescription(), phase.getValue());
+            }
+        }
+    }
+    
+    /**
+     * 以一行JSON输出分析结果，便于脚本逐行解析
+     */
+    private void printJson(Path jar, AnalysisResult result) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("jar", jar.toString());
+        json.put("modules", new TreeSet<>(result.getRequiredModules()));
+        json.put("classes", result.getDependencyGraph().getClassCount());
+        json.put("requiresJavaFx", result.requiresJavaFx());
+        json.put("analysisTimeMs", result.getAnalysisTimeMs());
+        json.put("metrics", result.getMetrics());
+        JsonWriter.println(out, err, json);
+    }
+    
+    /**
+     * 只有使用--json时才加载和初始化Jackson，避免拖慢普通命令行的启动
+     */
+    private static final class JsonWriter {
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+        
+        static void println(PrintStream out, PrintStream err, Object value) {
+            try {
+                out.println(MAPPER.writeValueAsString(value));
+            } catch (JsonProcessingException e) {
+                err.println("错误: 无法输出JSON: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 结果以外的提示信息：JSON模式下输出到标准错误，保证标准输出只有JSON
+     */
+    private PrintStream messages() {
+        return json ? err : out;
+    }
+    
+    /**
+     * 分析并构建单个JAR，失败时输出错误并返回false
+     */
+    private boolean processJar(JarAnalyzer analyzer, Path jar) {
+        try {
+            BuildConfiguration buildConfig = analyzeOnly ? null : createBuildConfiguration(jar);
+            
+            AnalysisResult result = analyzer.analyze(jar, ProgressReporter.silent(), buildConfig, cancellation);
+            printResult(jar, result);
+            
+            if (buildConfig != null) {
+                long startTime = System.currentTimeMillis();
+                new JREBuilder().buildJRE(result, buildConfig, progress -> { }, cancellation);
+                messages().printf("JRE已生成: %s (%dms)%n", buildConfig.getOutputPath().resolve("library"),
+                           System.currentTimeMillis() - startTime);
+            }
+            return true;
+        } catch (CancellationException e) {
+            return false;
+        } catch (Exception e) {
+            logger().debug("处理JAR失败: {}", jar, e);
+            err.println("错误: " + jar + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    private BuildConfiguration createBuildConfiguration(Path jar) {
+        Path jarOutput = jars.size() == 1 ? outputDir : outputDir.resolve(stripExtension(jar.getFileName().toString()));
+        BuildConfiguration.Builder builder = BuildConfiguration.builder()
+            .outputPath(jarOutput)
+            .compress(compress)
+            .compressionLevel(compressionLevel)
+            .stripDebug(stripDebug)
+            .enableAdvancedFeatures(advanced)
+            .jlinkInProcess(jlinkInProcess);
+        if (javafxSdk != null) {
+            builder.includeJavaFx(true).javafxSdkPath(javafxSdk);
+        }
+        builder.jreCacheDirectory(useCache ? CacheDirectories.jre(cacheDir) : null);
+        return builder.build();
+    }
+    
+    /**
+     * 解析参数，需要显示帮助时返回false
+     */
+    private boolean parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-h":
+                case "--help":
+                    return false;
+                case "-o":
+                case "--output":
+                    outputDir = Paths.get(requireValue(args, ++i, arg));
+                    break;
+                case "-a":
+                case "--analyze-only":
+                    analyzeOnly = true;
+                    break;
+                case "--javafx-sdk":
+                    javafxSdk = Paths.get(requireValue(args, ++i, arg));
+                    break;
+                case "--advanced":
+                    advanced = true;
+                    break;
+                case "--no-compress":
+                    compress = false;
+                    break;
+                case "--compression-level":
+                    compressionLevel = parseInt(requireValue(args, ++i, arg), arg);
+                    break;
+                case "--keep-debug":
+                    stripDebug = false;
+                    break;
+                case "--reachability":
+                    analysisOptions.reachabilityAnalysis(true);
+                    break;
+                case "--root":
+                    analysisOptions.addReachabilityRoot(requireValue(args, ++i, arg));
+                    break;
+                case "--scan-mode":
+                    analysisOptions.scanMode(parseScanMode(requireValue(args, ++i, arg)));
+                    break;
+                case "--parallelism":
+                    analysisOptions.parallelism(parseInt(requireValue(args, ++i, arg), arg));
+                    break;
+                case "-j":
+                case "--jobs":
+                    jobs = parseInt(requireValue(args, ++i, arg), arg);
+                    break;
+                case "--analysis-threads":
+                    analysisThreads = parseInt(requireValue(args, ++i, arg), arg);
+                    break;
+                case "--io-threads":
+                    ioThreads = parseInt(requireValue(args, ++i, arg), arg);
+                    break;
+                case "--background-threads":
+                    backgroundThreads = parseInt(requireValue(args, ++i, arg), arg);
+                    break;
+                case "--cache-dir":
+                    cacheDir = Paths.get(requireValue(args, ++i, arg));
+                    break;
+                case "--no-cache":
+                    useCache = false;
+                    break;
+                case "--jlink-in-process":
+                    jlinkInProcess = true;
+                    break;
+                case "--metrics":
+                    printMetrics = true;
+                    break;
+                case "--json":
+                    json = true;
+                    break;
+                case "-q":
+                case "--quiet":
+                    quiet = true;
+                    break;
+                default:
+                    if (arg.startsWith("-")) {
+                        throw new IllegalArgumentException("未知选项: " + arg);
+                    }
+                    jars.add(Paths.get(arg));
+                    break;
+            }
+        }
+        return true;
+    }
+    
+    private void validateArguments() {
+        if (jars.isEmpty()) {
+            throw new IllegalArgumentException("至少需要指定一个JAR文件");
+        }
+        for (Path jar : jars) {
+            if (!Files.isRegularFile(jar)) {
+                throw new IllegalArgumentException("JAR文件不存在: " + jar);
+            }
+        }
+        if (!analyzeOnly && outputDir == null) {
+            throw new IllegalArgumentException("构建JRE需要指定输出目录 (-o)，或使用 --analyze-only 只做分析");
+        }
+        if (jobs < 0) {
+            throw new IllegalArgumentException("同时分析的JAR数量不能为负数: " + jobs);
+        }
+        if (compressionLevel < 0 || compressionLevel > 2) {
+            throw new IllegalArgumentException("压缩级别必须在0-2之间: " + compressionLevel);
+        }
+        if (javafxSdk != null && !Files.isDirectory(javafxSdk)) {
+            throw new IllegalArgumentException("JavaFX SDK路径不存在: " + javafxSdk);
+        }
+    }
+    
+    private static String requireValue(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("选项缺少参数: " + option);
+        }
+        return args[index];
+    }
+    
+    private static int parseInt(String value, String option) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " 需要整数参数: " + value);
+        }
+    }
+    
+    private static AnalysisOptions.ScanMode parseScanMode(String value) {
+        try {
+            return AnalysisOptions.ScanMode.valueOf(value.toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("未知的扫描方式: " + value);
+        }
+    }
+    
+    private static String stripExtension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+    
+    /**
+     * 把面向用户的日志输出到控制台
+     */
+    private static final class ConsoleLogSink implements LogSink {
+        
+        private final PrintStream out;
+        private final PrintStream err;
+        
+        ConsoleLogSink(PrintStream out, PrintStream err) {
+            this.out = out;
+            this.err = err;
+        }
+        
+        @Override
+        public void logInfo(String message) {
+            out.println(message);
+        }
+        
+        @Override
+        public void logWarning(String message) {
+            err.println("警告: " + message);
+        }
+        
+        @Override
+        public void logError(String message) {
+            err.println("错误: " + message);
+        }
+        
+        @Override
+        public void logSuccess(String message) {
+            out.println(message);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.zlgg.analyzer;
+
+import com.zlgg.model.ClassDependency;
+import com.zlgg.model.SymbolTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 持久化的JAR分析缓存
+ * 以JAR内容的SHA-256为键，把该JAR的分析摘要保存在磁盘上；
+ * 同一个依赖JAR在不同的应用、不同的构建中只需要做一次ASM分析。
+ * 摘要中的模块来自当前JDK的模块映射，缓存目录由调用方按JDK标识区分。
+ * 缓存文件使用紧凑的二进制格式，类名等字符串只保存一次
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class AnalysisCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisCache.class);
+    
+    private static final int MAGIC = 0x4A524743; // "JRGC"
+    // 分析逻辑或模块映射规则变化时需要递增，旧的缓存文件会被视为未命中
+    private static final int FORMAT_VERSION = 3;
+    private static final String FILE_SUFFIX = ".bin";
+    private static final int HASH_CHUNK_SIZE = 64 * 1024;
+    
+    private final Path directory;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    
+    AnalysisCache(Path directory) {
+        this.directory = directory;
+    }
+    
+    /**
+     * 计算文件内容的SHA-256
+     */
+    static String sha256(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_CHUNK_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return toHex(digest.digest());
+    }
+    
+    /**
+     * 计算缓冲区剩余内容的SHA-256，不改变缓冲区的位置
+     */
+    static String sha256(ByteBuffer data) {
+        MessageDigest digest = newDigest();
+        digest.update(data.duplicate());
+        return toHex(digest.digest());
+    }
+    
+    /**
+     * 读取缓存，未命中或缓存文件损坏时返回null
+     * 
+     * @param symbols 缓存中的类名登记到该符号表，类依赖以符号编号返回
+     */
+    JarSummary load(String key, SymbolTable symbols) {
+        Path file = fileFor(key);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            JarSummary summary = read(in, symbols);
+            if (summary != null) {
+                hits.incrementAndGet();
+                return summary;
+            }
+            logger.debug("缓存文件版本不匹配，忽略: {}", file);
+        } catch (NoSuchFileException e) {
+            // 未命中
+        } catch (IOException | RuntimeException e) {
+            logger.warn("读取分析缓存失败，将重新分析: {}, 错误: {}", file, e.getMessage());
+            deleteQuietly(file);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+    
+    /**
+     * 写入缓存，先写临时文件再原子替换，避免并发读取到不完整的文件
+     */
+    void store(String key, JarSummary summary) {
+        Path file = fileFor(key);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tempFile = Files.createTempFile(file.getParent(), key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                write(out, summary);
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tempFile = null;
+        } catch (IOException e) {
+            logger.warn("写入分析缓存失败: {}, 错误: {}", file, e.getMessage());
+        } finally {
+            if (tempFile != null) {
+                deleteQuietly(tempFile);
+            }
+        }
+    }
+    
+    int getHitCount() {
+        return hits.get();
+    }
+    
+    int getMissCount() {
+        return misses.get();
+    }
+    
+    Path getDirectory() {
+        return directory;
+    }
+    
+    private Path fileFor(String key) {
+        // 按哈希前两位分目录，避免单个目录下文件过多
+        return directory.resolve(key.substring(0, 2)).resolve(key + FILE_SUFFIX);
+    }
+    
+    /**
+     * 文件格式：
+     * 头部 magic, version；字符串表；模块列表；入口类列表；类列表（类名、模块、标志、依赖），字符串均以字符串表下标表示
+     */
+    private static void write(DataOutputStream out, JarSummary summary) throws IOException {
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (String module : summary.getModules()) {
+            intern(module, stringIndex, strings);
+        }
+        for (String entryPoint : summary.getEntryPoints()) {
+            intern(entryPoint, stringIndex, strings);
+        }
+        for (ClassDependency classDep : summary.getClasses()) {
+            intern(classDep.getClassName(), stringIndex, strings);
+            if (classDep.getJavaModule() != null) {
+                intern(classDep.getJavaModule(), stringIndex, strings);
+            }
+            for (String dep : classDep.getDependencies()) {
+                intern(dep, stringIndex, strings);
+            }
+        }
+        
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(strings.size());
+        for (String value : strings) {
+            out.writeUTF(value);
+        }
+        
+        out.writeInt(summary.getModules().size());
+        for (String module : summary.getModules()) {
+            out.writeInt(stringIndex.get(module));
+        }
+        
+        out.writeInt(summary.getEntryPoints().size());
+        for (String entryPoint : summary.getEntryPoints()) {
+            out.writeInt(stringIndex.get(entryPoint));
+        }
+        
+        out.writeInt(summary.getClassCount());
+        for (ClassDependency classDep : summary.getClasses()) {
+            out.writeInt(stringIndex.get(classDep.getClassName()));
+            out.writeInt(classDep.getJavaModule() != null ? stringIndex.get(classDep.getJavaModule()) : -1);
+            out.writeBoolean(classDep.isJavaFxClass());
+            out.writeInt(classDep.getDependencies().size());
+            for (String dep : classDep.getDependencies()) {
+                out.writeInt(stringIndex.get(dep));
+            }
+        }
+    }
+    
+    private static JarSummary read(DataInputStream in, SymbolTable symbols) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            return null;
+        }
+        
+        String[] strings = new String[in.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = in.readUTF();
+        }
+        int[] symbolIds = symbols.internInOrder(Arrays.asList(strings));
+        
+        JarSummary summary = new JarSummary();
+        int moduleCount = in.readInt();
+        List<String> modules = new ArrayList<>(moduleCount);
+        for (int i = 0; i < moduleCount; i++) {
+            modules.add(strings[in.readInt()]);
+        }
+        summary.addModules(modules);
+        
+        int entryPointCount = in.readInt();
+        List<String> entryPoints = new ArrayList<>(entryPointCount);
+        for (int i = 0; i < entryPointCount; i++) {
+            entryPoints.add(strings[in.readInt()]);
+        }
+        summary.addEntryPoints(entryPoints);
+        
+        int classCount = in.readInt();
+        for (int i = 0; i < classCount; i++) {
+            String className = strings[in.readInt()];
+            int moduleIndex = in.readInt();
+            boolean isJavaFxClass = in.readBoolean();
+            int[] dependencies = new int[in.readInt()];
+            for (int j = 0; j < dependencies.length; j++) {
+                dependencies[j] = symbolIds[in.readInt()];
+            }
+            Arrays.sort(dependencies);
+            summary.addClass(new ClassDependency(className, dependencies, symbols,
+                                                 moduleIndex >= 0 ? strings[moduleIndex] : null, isJavaFxClass));
+        }
+        return summary;
+    }
+    
+    private static void intern(String value, Map<String, Integer> stringIndex, List<String> strings) {
+        if (!stringIndex.containsKey(value)) {
+            stringIndex.put(value, strings.size());
+            strings.add(value);
+        }
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("当前JDK不支持SHA-256", e);
+        }
+    }
+    
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+    
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("删除文件失败: {}", file);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.zlgg.analyzer;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR事件：JAR分析的一个阶段
+ * 由PhaseRecorder在阶段结束时提交，同一阶段分多段执行时每段一个事件
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+@Name("com.zlgg.AnalysisPhase")
+@Label("JAR分析阶段")
+@Category({"JREGenerate", "分析"})
+@Description("JarAnalyzer的一个分析阶段")
+class AnalysisPhaseEvent extends jdk.jfr.Event {
+    
+    @Label("JAR")
+    String jarName;
+    
+    @Label("阶段")
+    String phase;
+    
+    @Label("读取字节")
+    @DataAmount
+    long bytesRead;
+    
+    @Label("访问条目")
+    long entriesVisited;
+    
+    @Label("解析类数量")
+    long classesParsed;
+    
+    @Label("模块数量")
+    @Description("阶段结束时已确定的模块数量")
+    int moduleCount;
+}
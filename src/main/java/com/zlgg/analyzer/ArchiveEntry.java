@@ -0,0 +1,48 @@
+package com.zlgg.analyzer;
+
+/**
+ * 归档条目
+ * 与具体的归档读取实现无关，只保存条目名、大小和在中央目录中的序号
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class ArchiveEntry {
+    
+    private final int index;
+    private final String name;
+    private final long size;
+    
+    ArchiveEntry(int index, String name, long size) {
+        this.index = index;
+        this.name = name;
+        this.size = size;
+    }
+    
+    /**
+     * 条目在中央目录中的序号
+     */
+    int getIndex() {
+        return index;
+    }
+    
+    String getName() {
+        return name;
+    }
+    
+    /**
+     * 解压后的大小，未知时为-1
+     */
+    long getSize() {
+        return size;
+    }
+    
+    boolean isDirectory() {
+        return name.endsWith("/");
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+}
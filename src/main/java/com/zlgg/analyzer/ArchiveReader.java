@@ -0,0 +1,68 @@
+package com.zlgg.analyzer;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * 归档读取器
+ * 统一java.util.jar.JarFile和内存映射两种JAR读取方式
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+interface ArchiveReader extends Closeable {
+    
+    /**
+     * 归档名称（用于日志）
+     */
+    String getName();
+    
+    /**
+     * 所有条目，保持中央目录中的顺序
+     */
+    List<ArchiveEntry> getEntries();
+    
+    /**
+     * 读取条目内容
+     * 返回的缓冲区可能是归档数据的零拷贝切片，也可能是当前线程的复用缓冲区，
+     * 只在同一线程下一次调用slice之前有效，调用方不得修改其内容
+     */
+    ByteBuffer slice(ArchiveEntry entry) throws IOException;
+    
+    /**
+     * 以输入流方式读取条目内容
+     */
+    default InputStream open(ArchiveEntry entry) throws IOException {
+        return new ByteArrayInputStream(readBytes(entry));
+    }
+    
+    /**
+     * 读取条目内容到新的字节数组
+     */
+    default byte[] readBytes(ArchiveEntry entry) throws IOException {
+        ByteBuffer buffer = slice(entry);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+    
+    /**
+     * 读取Manifest，不存在时返回null
+     */
+    default Manifest getManifest() throws IOException {
+        for (ArchiveEntry entry : getEntries()) {
+            if (entry.getName().equals(JarFile.MANIFEST_NAME)) {
+                try (InputStream is = open(entry)) {
+                    return new Manifest(is);
+                }
+            }
+        }
+        return null;
+    }
+}
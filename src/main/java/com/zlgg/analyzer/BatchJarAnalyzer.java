@@ -0,0 +1,230 @@
+package com.zlgg.analyzer;
+
+import com.zlgg.model.AnalysisOptions;
+import com.zlgg.model.AnalysisResult;
+import com.zlgg.model.SymbolTable;
+import com.zlgg.util.CancellationToken;
+import com.zlgg.util.ModuleMapper;
+import com.zlgg.util.ProgressReporter;
+import com.zlgg.util.TaskExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 批量JAR分析器
+ * 在共享的background线程池中用固定数量的工作任务依次领取JAR进行分析，
+ * 所有JAR共用一个模块映射器、一个类名符号表和模块查找缓存，
+ * 每个JAR分析完成后立即把结果交给监听器，分析器本身不保留任何结果，
+ * 内存占用只与同时分析的JAR数量以及不同类名的数量有关，与批次中的JAR总数无关
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+public class BatchJarAnalyzer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BatchJarAnalyzer.class);
+    
+    /**
+     * 分析结果监听器，回调按完成顺序串行调用，实现不需要是线程安全的
+     */
+    public interface Listener {
+        
+        void onResult(Path jarPath, AnalysisResult result);
+        
+        default void onFailure(Path jarPath, Exception error) {
+        }
+    }
+    
+    /**
+     * 批量分析的统计信息
+     */
+    public static final class Summary {
+        private final int totalJars;
+        private final int failedJars;
+        private final long totalClasses;
+        private final long elapsedMs;
+        
+        private Summary(int totalJars, int failedJars, long totalClasses, long elapsedMs) {
+            this.totalJars = totalJars;
+            this.failedJars = failedJars;
+            this.totalClasses = totalClasses;
+            this.elapsedMs = elapsedMs;
+        }
+        
+        public int getTotalJars() {
+            return totalJars;
+        }
+        
+        public int getFailedJars() {
+            return failedJars;
+        }
+        
+        public long getTotalClasses() {
+            return totalClasses;
+        }
+        
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+        
+        /**
+         * 吞吐量：每秒分析的JAR数量
+         */
+        public double getJarsPerSecond() {
+            return totalJars * 1000.0 / Math.max(1, elapsedMs);
+        }
+        
+        /**
+         * 吞吐量：每秒分析的类数量
+         */
+        public double getClassesPerSecond() {
+            return totalClasses * 1000.0 / Math.max(1, elapsedMs);
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%d 个JAR（失败 %d 个），%d 个类，%dms，%.1f JAR/s，%.0f 类/s",
+                                 totalJars, failedJars, totalClasses, elapsedMs,
+                                 getJarsPerSecond(), getClassesPerSecond());
+        }
+    }
+    
+    private final JarAnalyzer analyzer;
+    private final int concurrency;
+    private final SymbolTable symbols = new SymbolTable();
+    private final ModuleLookupCache moduleLookup;
+    
+    /**
+     * 同时分析的JAR数量等于分析选项中的并行度
+     */
+    public BatchJarAnalyzer(AnalysisOptions options) {
+        this(options, options.getParallelism());
+    }
+    
+    /**
+     * @param options 分析选项；并行度被平均分配给同时分析的JAR
+     * @param concurrency 同时分析的JAR数量，实际数量不超过background线程池的线程数
+     */
+    public BatchJarAnalyzer(AnalysisOptions options, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("同时分析的JAR数量必须大于0: " + concurrency);
+        }
+        this.concurrency = concurrency;
+        // 线程已经按JAR并行，单个JAR内部只分到剩余的并行度；
+        // jdeps只在确实需要时运行，避免每个JAR都在后台启动一次
+        AnalysisOptions jarOptions = options.toBuilder()
+            .parallelism(Math.max(1, options.getParallelism() / concurrency))
+            .concurrentJdeps(false)
+            .build();
+        ModuleMapper moduleMapper = new ModuleMapper();
+        this.analyzer = new JarAnalyzer(jarOptions, moduleMapper);
+        this.moduleLookup = new ModuleLookupCache(moduleMapper, symbols);
+    }
+    
+    /**
+     * 分析一批JAR，全部完成后返回统计信息
+     *
+     * @param jarPaths JAR文件路径
+     * @param listener 每个JAR完成（或失败）时的回调
+     * @throws InterruptedException 等待过程中被中断，此时未开始的JAR不再分析
+     */
+    public Summary analyze(Collection<Path> jarPaths, Listener listener) throws InterruptedException {
+        return analyze(jarPaths, listener, CancellationToken.none());
+    }
+    
+    /**
+     * 分析一批JAR，全部完成后返回统计信息，可以通过取消令牌中途停止
+     *
+     * @param jarPaths JAR文件路径
+     * @param listener 每个JAR完成（或失败）时的回调
+     * @param cancellation 取消令牌，取消后正在分析的JAR尽快停止，未开始的JAR不再分析
+     * @throws InterruptedException 等待过程中被中断，此时未开始的JAR不再分析
+     * @throws CancellationException 批量分析被取消，已完成的JAR已经交给监听器
+     */
+    public Summary analyze(Collection<Path> jarPaths, Listener listener,
+                           CancellationToken cancellation) throws InterruptedException {
+        long startTime = System.currentTimeMillis();
+        Iterator<Path> pending = jarPaths.iterator();
+        AtomicInteger finished = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong classes = new AtomicLong();
+        Object listenerLock = new Object();
+        
+        int workers = Math.max(1, Math.min(concurrency, jarPaths.size()));
+        logger.info("开始批量分析 {} 个JAR，同时分析 {} 个", jarPaths.size(), workers);
+        
+        // 调用方被中断或工作线程异常结束时，通过这个令牌停止其余工作线程
+        CancellationToken stop = new CancellationToken();
+        CancellationToken.Registration registration = cancellation.onCancel(stop::cancel);
+        boolean completed = false;
+        try {
+            // 工作线程逐个领取JAR，不会一次性为所有JAR创建任务
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(TaskExecutors.background().run(() -> {
+                    Path jarPath;
+                    while (!stop.isCancelled() && (jarPath = next(pending)) != null) {
+                        try {
+                            AnalysisResult result = analyzer.analyze(jarPath, ProgressReporter.silent(), null,
+                                                                     moduleLookup, stop);
+                            classes.addAndGet(result.getDependencyGraph().getClassCount());
+                            synchronized (listenerLock) {
+                                listener.onResult(jarPath, result);
+                            }
+                        } catch (CancellationException e) {
+                            break;
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                            logger.warn("分析JAR失败: {}, 错误: {}", jarPath, e.getMessage());
+                            synchronized (listenerLock) {
+                                listener.onFailure(jarPath, e);
+                            }
+                        }
+                        finished.incrementAndGet();
+                    }
+                }));
+            }
+            for (CompletableFuture<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("批量分析的工作线程异常结束", e.getCause());
+                }
+            }
+            completed = true;
+        } finally {
+            registration.close();
+            if (!completed) {
+                stop.cancel();
+            }
+        }
+        
+        if (cancellation.isCancelled()) {
+            logger.info("批量分析已取消，已完成 {} 个JAR", finished.get());
+            cancellation.throwIfCancelled();
+        }
+        
+        Summary summary = new Summary(finished.get(), failed.get(), classes.get(),
+                                      System.currentTimeMillis() - startTime);
+        logger.info("批量分析完成: {}，符号表中共 {} 个类名，模块查找缓存命中率 {}%", summary, symbols.size(),
+                    String.format("%.1f", moduleLookup.getHitRate() * 100));
+        return summary;
+    }
+    
+    private static Path next(Iterator<Path> pending) {
+        synchronized (pending) {
+            return pending.hasNext() ? pending.next() : null;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.zlgg.analyzer;
+
+import com.zlgg.model.ClassDependency;
+import com.zlgg.util.CancellationToken;
+import com.zlgg.util.TaskExecutors;
+import com.zlgg.util.TaskPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * 类文件分析引擎
+ * 将类文件按批次分配到共享的analysis线程池中读取并执行ASM分析，
+ * 再按JAR条目顺序合并结果，保证输出与单线程分析完全一致。
+ * 同时提交的批次不超过并行度，即每个分析最多同时占用parallelism个工作线程，
+ * 多个分析共用线程池时各自的并发度和队列深度都有上限。
+ * 每个批次开始前检查取消令牌，取消后未开始的批次直接跳过，合并时抛出CancellationException
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+class ClassAnalysisEngine {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ClassAnalysisEngine.class);
+    
+    /**
+     * 单个类文件的解析函数
+     * 缓冲区只在调用期间有效，实现不得保留对它的引用
+     */
+    @FunctionalInterface
+    interface ClassFileParser {
+        ClassDependency parse(byte[] buffer, int offset, int length) throws IOException;
+    }
+    
+    // 映射区域的切片不是堆数组，需要复制到线程复用的数组中交给ClassReader
+    private static final ThreadLocal<ReusableBuffer> SCRATCH = ThreadLocal.withInitial(ReusableBuffer::new);
+    
+    private final int parallelism;
+    private final int batchSize;
+    private final PhaseRecorder metrics;
+    private final CancellationToken cancellation;
+    
+    /**
+     * @param metrics 读取的字节、访问的条目和解析的类计入该记录器的当前阶段
+     * @param cancellation 取消令牌
+     */
+    ClassAnalysisEngine(int parallelism, int batchSize, PhaseRecorder metrics, CancellationToken cancellation) {
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.metrics = metrics;
+        this.cancellation = cancellation;
+    }
+    
+    /**
+     * 分析给定的类文件条目，结果按条目顺序写入classDependencies
+     *
+     * @param archive 归档读取器
+     * @param classEntries 类文件条目（按JAR中的顺序）
+     * @param parser 单个类文件的解析函数，必须是线程安全的
+     * @param classDependencies 类依赖结果
+     * @param progressCallback 进度回调 (0.0-1.0)
+     * @return 成功处理的类文件数量
+     * @throws java.util.concurrent.CancellationException 分析过程中被取消
+     */
+    int analyze(ArchiveReader archive,
+                List<ArchiveEntry> classEntries,
+                ClassFileParser parser,
+                Map<String, ClassDependency> classDependencies,
+                Consumer<Double> progressCallback) {
+        
+        int totalClasses = classEntries.size();
+        logger.debug("开始分析 {} 个类文件，并行度: {}", totalClasses, parallelism);
+        
+        if (parallelism <= 1 || totalClasses <= batchSize) {
+            return analyzeSequentially(archive, classEntries, parser, classDependencies, progressCallback);
+        }
+        
+        TaskPool pool = TaskExecutors.analysis();
+        // 同时提交的批次数即并发上限，保证不超过配置的并行度
+        int window = parallelism;
+        Deque<CompletableFuture<ClassDependency[]>> inFlight = new ArrayDeque<>(window);
+        try {
+            // 按顺序提交批次，合并一个批次后再提交下一个，由工作线程各自读取并解析
+            int nextStart = 0;
+            while (nextStart < totalClasses && inFlight.size() < window) {
+                inFlight.add(submitBatch(pool, archive, classEntries, nextStart, parser));
+                nextStart += batchSize;
+            }
+            
+            // 按提交顺序合并，保证同名类的覆盖顺序与单线程一致
+            int processedClasses = 0;
+            int visitedEntries = 0;
+            int loggedStep = 0;
+            while (!inFlight.isEmpty()) {
+                ClassDependency[] results = inFlight.poll().join();
+                cancellation.throwIfCancelled();
+                if (nextStart < totalClasses) {
+                    inFlight.add(submitBatch(pool, archive, classEntries, nextStart, parser));
+                    nextStart += batchSize;
+                }
+                for (ClassDependency classDep : results) {
+                    if (classDep != null) {
+                        classDependencies.put(classDep.getClassName(), classDep);
+                        processedClasses++;
+                    }
+                }
+                visitedEntries += results.length;
+                double progress = (double) visitedEntries / totalClasses;
+                progressCallback.accept(progress);
+                
+                // 每处理10%的类文件输出一次日志
+                if ((int) (progress * 10) > loggedStep) {
+                    loggedStep = (int) (progress * 10);
+                    logger.debug("已处理 {}/{} 个类文件 ({}%)",
+                               visitedEntries, totalClasses,
+                               String.format("%.1f", progress * 100));
+                }
+            }
+            return processedClasses;
+        } finally {
+            // 异常结束时等待已提交的批次结束，调用方随后会关闭归档
+            for (CompletableFuture<ClassDependency[]> batch : inFlight) {
+                batch.exceptionally(error -> null).join();
+            }
+        }
+    }
+    
+    private CompletableFuture<ClassDependency[]> submitBatch(TaskPool pool, ArchiveReader archive,
+                                                             List<ArchiveEntry> classEntries, int start,
+                                                             ClassFileParser parser) {
+        List<ArchiveEntry> batch = classEntries.subList(start, Math.min(start + batchSize, classEntries.size()));
+        return pool.supply(() -> analyzeBatch(archive, batch, parser));
+    }
+    
+    /**
+     * 单线程逐个分析类文件
+     */
+    private int analyzeSequentially(ArchiveReader archive,
+                                    List<ArchiveEntry> classEntries,
+                                    ClassFileParser parser,
+                                    Map<String, ClassDependency> classDependencies,
+                                    Consumer<Double> progressCallback) {
+        int totalClasses = classEntries.size();
+        int processedClasses = 0;
+        ClassBatchEvent event = new ClassBatchEvent();
+        event.begin();
+        
+        int visitedEntries = 0;
+        for (ArchiveEntry entry : classEntries) {
+            // 单线程时每处理一个批次大小的条目检查一次取消令牌
+            if (visitedEntries++ % batchSize == 0) {
+                cancellation.throwIfCancelled();
+            }
+            try {
+                ClassDependency classDep = parseEntry(archive, entry, parser);
+                classDependencies.put(classDep.getClassName(), classDep);
+                processedClasses++;
+                
+                // 更新进度
+                double progress = (double) processedClasses / totalClasses;
+                progressCallback.accept(progress);
+                
+                // 每处理10%的类文件输出一次日志
+                if (processedClasses % Math.max(1, totalClasses / 10) == 0) {
+                    logger.debug("已处理 {}/{} 个类文件 ({}%)",
+                               processedClasses, totalClasses,
+                               String.format("%.1f", progress * 100));
+                }
+            
+            } catch (Exception e) {
+                logger.warn("分析类文件失败: {}, 错误: {}", entry.getName(), e.getMessage());
+            }
+        }
+        commit(event, archive, totalClasses, processedClasses);
+        return processedClasses;
+    }
+    
+    /**
+     * 在工作线程中分析一个批次，失败的条目以null占位
+     */
+    private ClassDependency[] analyzeBatch(ArchiveReader archive, List<ArchiveEntry> batch, ClassFileParser parser) {
+        if (cancellation.isCancelled()) {
+            return new ClassDependency[0];
+        }
+        long allocated = metrics.workerStarted();
+        ClassBatchEvent event = new ClassBatchEvent();
+        event.begin();
+        ClassDependency[] results = new ClassDependency[batch.size()];
+        int parsedClasses = 0;
+        for (int i = 0; i < results.length; i++) {
+            ArchiveEntry entry = batch.get(i);
+            try {
+                results[i] = parseEntry(archive, entry, parser);
+                parsedClasses++;
+            } catch (Exception e) {
+                logger.warn("分析类文件失败: {}, 错误: {}", entry.getName(), e.getMessage());
+            }
+        }
+        commit(event, archive, results.length, parsedClasses);
+        metrics.workerFinished(allocated);
+        return results;
+    }
+    
+    private static void commit(ClassBatchEvent event, ArchiveReader archive, int entryCount, int classCount) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.archive = archive.getName();
+            event.entryCount = entryCount;
+            event.classCount = classCount;
+            event.commit();
+        }
+    }
+    
+    private ClassDependency parseEntry(ArchiveReader archive, ArchiveEntry entry, ClassFileParser parser) throws IOException {
+        metrics.addEntriesVisited(1);
+        ByteBuffer classBytes = archive.slice(entry);
+        int length = classBytes.remaining();
+        metrics.addBytesRead(length);
+        ClassDependency classDep;
+        if (classBytes.hasArray()) {
+            classDep = parser.parse(classBytes.array(), classBytes.arrayOffset() + classBytes.position(), length);
+        } else {
+            byte[] scratch = SCRATCH.get().ensureCapacity(length);
+            classBytes.get(scratch, 0, length);
+            classDep = parser.parse(scratch, 0, length);
+        }
+        metrics.classParsed();
+        return classDep;
+    }
+}
@@ -0,0 +1,33 @@
+package com.zlgg.analyzer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR事件：ClassAnalysisEngine分析的一批类文件
+ * 并行分析时每个批次一个事件，顺序分析（包括内嵌JAR）时整个归档一个事件；
+ * 事件数量较多，不记录调用栈
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+@Name("com.zlgg.ClassBatch")
+@Label("类文件批次")
+@Category({"JREGenerate", "分析"})
+@Description("在一个线程中连续分析的一批类文件")
+@StackTrace(false)
+class ClassBatchEvent extends jdk.jfr.Event {
+    
+    @Label("归档")
+    String archive;
+    
+    @Label("条目数量")
+    int entryCount;
+    
+    @Label("类数量")
+    @Description("成功解析的类文件数量")
+    int classCount;
+}
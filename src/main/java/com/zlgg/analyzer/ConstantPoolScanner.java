@@ -0,0 +1,328 @@
+package com.zlgg.analyzer;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 常量池快速扫描器
+ * 不创建ASM访问器、不解析方法体，直接从类文件字节中读取：
+ * CONSTANT_Class、CONSTANT_NameAndType和CONSTANT_MethodType引用的类型，
+ * 以及字段、方法的描述符和Signature属性中的类型。
+ * 方法体中引用的类型都会以常量池条目的形式出现，因此得到的模块集合与逐条指令访问基本一致
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class ConstantPoolScanner {
+    
+    // 常量池条目类型
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int FLOAT = 4;
+    private static final int LONG = 5;
+    private static final int DOUBLE = 6;
+    private static final int CLASS = 7;
+    private static final int STRING = 8;
+    private static final int FIELDREF = 9;
+    private static final int METHODREF = 10;
+    private static final int INTERFACE_METHODREF = 11;
+    private static final int NAME_AND_TYPE = 12;
+    private static final int METHOD_HANDLE = 15;
+    private static final int METHOD_TYPE = 16;
+    private static final int DYNAMIC = 17;
+    private static final int INVOKE_DYNAMIC = 18;
+    private static final int MODULE = 19;
+    private static final int PACKAGE = 20;
+    
+    private final byte[] buffer;
+    private final int[] entryOffsets;
+    private final String[] utf8Cache;
+    private final Set<String> dependencies = new HashSet<>();
+    private char[] charBuffer = new char[128];
+    private String className;
+    
+    private ConstantPoolScanner(byte[] buffer, int constantPoolCount) {
+        this.buffer = buffer;
+        this.entryOffsets = new int[constantPoolCount];
+        this.utf8Cache = new String[constantPoolCount];
+    }
+    
+    /**
+     * 扫描类文件
+     *
+     * @throws IllegalArgumentException 不是有效的类文件
+     */
+    static ConstantPoolScanner scan(byte[] buffer, int offset, int length) {
+        if (length < 10 || readInt(buffer, offset) != 0xCAFEBABE) {
+            throw new IllegalArgumentException("不是有效的类文件");
+        }
+        ConstantPoolScanner scanner = new ConstantPoolScanner(buffer, readUnsignedShort(buffer, offset + 8));
+        scanner.parse(offset + 10);
+        return scanner;
+    }
+    
+    /**
+     * 类名（点分形式）
+     */
+    String getClassName() {
+        return className;
+    }
+    
+    /**
+     * 引用的类型（点分形式），过滤规则与DependencyCollector一致
+     */
+    Set<String> getDependencies() {
+        return dependencies;
+    }
+    
+    private void parse(int position) {
+        // 第一遍：记录每个常量池条目的位置
+        int pos = position;
+        for (int i = 1; i < entryOffsets.length; i++) {
+            entryOffsets[i] = pos + 1;
+            switch (buffer[pos]) {
+                case UTF8:
+                    pos += 3 + readUnsignedShort(buffer, pos + 1);
+                    break;
+                case CLASS:
+                case STRING:
+                case METHOD_TYPE:
+                case MODULE:
+                case PACKAGE:
+                    pos += 3;
+                    break;
+                case METHOD_HANDLE:
+                    pos += 4;
+                    break;
+                case INTEGER:
+                case FLOAT:
+                case FIELDREF:
+                case METHODREF:
+                case INTERFACE_METHODREF:
+                case NAME_AND_TYPE:
+                case DYNAMIC:
+                case INVOKE_DYNAMIC:
+                    pos += 5;
+                    break;
+                case LONG:
+                case DOUBLE:
+                    pos += 9;
+                    i++; // 占用两个常量池位置
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知的常量池条目类型: " + buffer[pos]);
+            }
+        }
+        
+        int thisClass = readUnsignedShort(buffer, pos + 2);
+        className = utf8(readUnsignedShort(buffer, entryOffsets[thisClass])).replace('/', '.');
+        
+        // 第二遍：收集常量池中的类型引用
+        for (int i = 1; i < entryOffsets.length; i++) {
+            int entry = entryOffsets[i];
+            if (entry == 0) {
+                continue;
+            }
+            switch (buffer[entry - 1]) {
+                case CLASS:
+                    if (i != thisClass) {
+                        addClassEntry(utf8(readUnsignedShort(buffer, entry)));
+                    }
+                    break;
+                case NAME_AND_TYPE:
+                    parseSignature(utf8(readUnsignedShort(buffer, entry + 2)));
+                    break;
+                case METHOD_TYPE:
+                    parseSignature(utf8(readUnsignedShort(buffer, entry)));
+                    break;
+                case LONG:
+                case DOUBLE:
+                    i++;
+                    break;
+                default:
+                    break;
+            }
+        }
+        
+        // 字段、方法的描述符和泛型签名只被成员表引用，不在常量池条目之间互相引用
+        pos += 6;
+        pos += 2 + 2 * readUnsignedShort(buffer, pos); // 接口（已作为CONSTANT_Class处理）
+        pos = parseMembers(pos); // 字段
+        pos = parseMembers(pos); // 方法
+        parseAttributes(pos);    // 类属性
+    }
+    
+    private int parseMembers(int pos) {
+        int count = readUnsignedShort(buffer, pos);
+        pos += 2;
+        for (int i = 0; i < count; i++) {
+            parseSignature(utf8(readUnsignedShort(buffer, pos + 4)));
+            pos = parseAttributes(pos + 6);
+        }
+        return pos;
+    }
+    
+    /**
+     * 读取属性表，只解析Signature属性，返回属性表之后的位置
+     */
+    private int parseAttributes(int pos) {
+        int count = readUnsignedShort(buffer, pos);
+        pos += 2;
+        for (int i = 0; i < count; i++) {
+            int length = readInt(buffer, pos + 2);
+            if ("Signature".equals(utf8(readUnsignedShort(buffer, pos)))) {
+                parseSignature(utf8(readUnsignedShort(buffer, pos + 6)));
+            }
+            pos += 6 + length;
+        }
+        return pos;
+    }
+    
+    private void addClassEntry(String internalName) {
+        if (internalName.startsWith("[")) {
+            parseType(internalName, 0);
+        } else {
+            addDependency(internalName);
+        }
+    }
+    
+    /**
+     * 解析字段/方法描述符或泛型签名中的类型
+     */
+    private void parseSignature(String signature) {
+        int length = signature.length();
+        int i = 0;
+        try {
+            if (length > 0 && signature.charAt(0) == '<') {
+                i = parseFormalTypeParameters(signature, 0);
+            }
+            while (i < length) {
+                char c = signature.charAt(i);
+                if (c == 'L' || c == 'T' || c == '[') {
+                    i = parseType(signature, i);
+                } else {
+                    i++; // 基本类型以及 ( ) ^ 等分隔符
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // 格式不正确的签名，忽略剩余部分
+        }
+    }
+    
+    private int parseType(String signature, int i) {
+        switch (signature.charAt(i)) {
+            case '[':
+                return parseType(signature, i + 1);
+            case 'T':
+                return signature.indexOf(';', i) + 1;
+            case 'L':
+                return parseClassType(signature, i);
+            default:
+                return i + 1;
+        }
+    }
+    
+    private int parseClassType(String signature, int i) {
+        int j = i + 1;
+        while (!isClassNameEnd(signature.charAt(j))) {
+            j++;
+        }
+        addDependency(signature.substring(i + 1, j));
+        
+        while (true) {
+            char c = signature.charAt(j);
+            if (c == ';') {
+                return j + 1;
+            } else if (c == '<') {
+                j = parseTypeArguments(signature, j);
+            } else {
+                // 内部类后缀 .Inner
+                j++;
+                while (!isClassNameEnd(signature.charAt(j))) {
+                    j++;
+                }
+            }
+        }
+    }
+    
+    private int parseTypeArguments(String signature, int i) {
+        i++;
+        while (signature.charAt(i) != '>') {
+            char c = signature.charAt(i);
+            if (c == '*') {
+                i++;
+            } else {
+                if (c == '+' || c == '-') {
+                    i++;
+                }
+                i = parseType(signature, i);
+            }
+        }
+        return i + 1;
+    }
+    
+    private int parseFormalTypeParameters(String signature, int i) {
+        i++;
+        while (signature.charAt(i) != '>') {
+            i = signature.indexOf(':', i);
+            while (signature.charAt(i) == ':') {
+                i++;
+                char c = signature.charAt(i);
+                if (c == 'L' || c == 'T' || c == '[') {
+                    i = parseType(signature, i);
+                }
+            }
+        }
+        return i + 1;
+    }
+    
+    private static boolean isClassNameEnd(char c) {
+        return c == ';' || c == '<' || c == '.';
+    }
+    
+    private void addDependency(String internalName) {
+        if (!internalName.startsWith("java/lang/Object")) {
+            dependencies.add(internalName.replace('/', '.'));
+        }
+    }
+    
+    /**
+     * 按常量池下标读取CONSTANT_Utf8（修改版UTF-8编码）
+     */
+    private String utf8(int index) {
+        String cached = utf8Cache[index];
+        if (cached != null) {
+            return cached;
+        }
+        int pos = entryOffsets[index];
+        int length = readUnsignedShort(buffer, pos);
+        pos += 2;
+        int end = pos + length;
+        if (charBuffer.length < length) {
+            charBuffer = new char[length];
+        }
+        int count = 0;
+        while (pos < end) {
+            int b = buffer[pos++] & 0xFF;
+            if (b < 0x80) {
+                charBuffer[count++] = (char) b;
+            } else if (b < 0xE0) {
+                charBuffer[count++] = (char) (((b & 0x1F) << 6) | (buffer[pos++] & 0x3F));
+            } else {
+                charBuffer[count++] = (char) (((b & 0x0F) << 12) | ((buffer[pos++] & 0x3F) << 6) | (buffer[pos++] & 0x3F));
+            }
+        }
+        String value = new String(charBuffer, 0, count);
+        utf8Cache[index] = value;
+        return value;
+    }
+    
+    private static int readUnsignedShort(byte[] buffer, int pos) {
+        return ((buffer[pos] & 0xFF) << 8) | (buffer[pos + 1] & 0xFF);
+    }
+    
+    private static int readInt(byte[] buffer, int pos) {
+        return ((buffer[pos] & 0xFF) << 24) | ((buffer[pos + 1] & 0xFF) << 16)
+                | ((buffer[pos + 2] & 0xFF) << 8) | (buffer[pos + 3] & 0xFF);
+    }
+}
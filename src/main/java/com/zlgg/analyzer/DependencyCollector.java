@@ -0,0 +1,168 @@
+package com.zlgg.analyzer;
+
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * ASM类访问器，用于收集类依赖关系
+ * 每个实例只用于分析一个类，非线程安全
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+class DependencyCollector extends ClassVisitor {
+    
+    private final Set<String> dependencies = new HashSet<>();
+    
+    public DependencyCollector() {
+        super(Opcodes.ASM9);
+    }
+    
+    @Override
+    public void visit(int version, int access, String name, String signature,
+                     String superName, String[] interfaces) {
+        if (superName != null) {
+            addDependency(superName);
+        }
+        if (interfaces != null) {
+            for (String iface : interfaces) {
+                addDependency(iface);
+            }
+        }
+    }
+    
+    @Override
+    public org.objectweb.asm.FieldVisitor visitField(int access, String name, String descriptor,
+                                                    String signature, Object value) {
+        // 解析字段类型
+        parseTypeDescriptor(descriptor);
+        if (signature != null) {
+            parseSignature(signature);
+        }
+        return null;
+    }
+    
+    @Override
+    public org.objectweb.asm.MethodVisitor visitMethod(int access, String name, String descriptor,
+                                                      String signature, String[] exceptions) {
+        // 解析方法签名
+        parseMethodDescriptor(descriptor);
+        if (signature != null) {
+            parseSignature(signature);
+        }
+        if (exceptions != null) {
+            for (String exception : exceptions) {
+                addDependency(exception);
+            }
+        }
+        
+        // 返回方法访问器来分析方法体中的依赖
+        return new org.objectweb.asm.MethodVisitor(Opcodes.ASM9) {
+            @Override
+            public void visitTypeInsn(int opcode, String type) {
+                addDependency(type);
+            }
+            
+            @Override
+            public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+                addDependency(owner);
+                parseTypeDescriptor(descriptor);
+            }
+            
+            @Override
+            public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+                addDependency(owner);
+                parseMethodDescriptor(descriptor);
+            }
+            
+            @Override
+            public void visitLdcInsn(Object value) {
+                if (value instanceof org.objectweb.asm.Type) {
+                    org.objectweb.asm.Type type = (org.objectweb.asm.Type) value;
+                    if (type.getSort() == org.objectweb.asm.Type.OBJECT) {
+                        addDependency(type.getInternalName());
+                    }
+                }
+            }
+            
+            @Override
+            public void visitLocalVariable(String name, String descriptor, String signature,
+                                         org.objectweb.asm.Label start, org.objectweb.asm.Label end, int index) {
+                parseTypeDescriptor(descriptor);
+                if (signature != null) {
+                    parseSignature(signature);
+                }
+            }
+        };
+    }
+    
+    @Override
+    public void visitInnerClass(String name, String outerName, String innerName, int access) {
+        addDependency(name);
+    }
+    
+    private void parseTypeDescriptor(String descriptor) {
+        org.objectweb.asm.Type type = org.objectweb.asm.Type.getType(descriptor);
+        addTypeReference(type);
+    }
+    
+    private void parseMethodDescriptor(String descriptor) {
+        org.objectweb.asm.Type methodType = org.objectweb.asm.Type.getMethodType(descriptor);
+        addTypeReference(methodType.getReturnType());
+        for (org.objectweb.asm.Type argType : methodType.getArgumentTypes()) {
+            addTypeReference(argType);
+        }
+    }
+    
+    private void parseSignature(String signature) {
+        // 简单的泛型签名解析
+        if (signature != null) {
+            // 提取L...;格式的类引用
+            int start = 0;
+            while ((start = signature.indexOf('L', start)) != -1) {
+                int end = signature.indexOf(';', start);
+                if (end != -1) {
+                    String className = signature.substring(start + 1, end);
+                    addDependency(className);
+                    start = end + 1;
+                } else {
+                    break;
+                }
+            }
+        }
+    }
+    
+    private void addTypeReference(org.objectweb.asm.Type type) {
+        if (type.getSort() == org.objectweb.asm.Type.OBJECT) {
+            addDependency(type.getInternalName());
+        } else if (type.getSort() == org.objectweb.asm.Type.ARRAY) {
+            addTypeReference(type.getElementType());
+        }
+    }
+    
+    private void addDependency(String internalName) {
+        if (internalName != null && !internalName.startsWith("java/lang/Object")) {
+            // 转换内部类名为标准类名
+            String className = internalName.replace('/', '.');
+            
+            // 过滤掉基本类型和数组
+            if (!className.startsWith("[") && !isPrimitiveType(className)) {
+                dependencies.add(className);
+            }
+        }
+    }
+    
+    private boolean isPrimitiveType(String className) {
+        return className.equals("byte") || className.equals("short") ||
+               className.equals("int") || className.equals("long") ||
+               className.equals("float") || className.equals("double") ||
+               className.equals("boolean") || className.equals("char");
+    }
+    
+    public Set<String> getDependencies() {
+        return dependencies;
+    }
+}
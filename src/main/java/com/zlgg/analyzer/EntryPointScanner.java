@@ -0,0 +1,103 @@
+package com.zlgg.analyzer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 入口类扫描器
+ * 从JAR的元数据中收集不会被字节码直接引用、但运行时会被加载的类，作为可达性分析的根：
+ * ServiceLoader服务提供者、Spring自动配置类以及FXML中声明的控制器
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class EntryPointScanner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EntryPointScanner.class);
+    
+    private static final Pattern FXML_CONTROLLER = Pattern.compile("fx:controller\\s*=\\s*\"([^\"]+)\"");
+    
+    private EntryPointScanner() {
+    }
+    
+    /**
+     * 扫描目录中的元数据文件，返回声明的入口类名
+     */
+    static Set<String> scan(JarEntryCatalog catalog) {
+        Set<String> entryPoints = new LinkedHashSet<>();
+        ArchiveReader archive = catalog.getArchive();
+        
+        for (ArchiveEntry entry : catalog.getEntries(JarEntryCatalog.EntryKind.SERVICE)) {
+            readClassList(archive, entry, entryPoints);
+        }
+        
+        for (ArchiveEntry entry : catalog.getEntries(JarEntryCatalog.EntryKind.SPRING_META)) {
+            if (entry.getName().endsWith(".factories")) {
+                readSpringFactories(archive, entry, entryPoints);
+            } else {
+                readClassList(archive, entry, entryPoints);
+            }
+        }
+        
+        for (String content : catalog.getFxmlContents().values()) {
+            Matcher matcher = FXML_CONTROLLER.matcher(content);
+            while (matcher.find()) {
+                entryPoints.add(matcher.group(1).trim());
+            }
+        }
+        
+        return entryPoints;
+    }
+    
+    /**
+     * 读取每行一个类名的文件（服务声明、*.imports），忽略#注释
+     */
+    private static void readClassList(ArchiveReader archive, ArchiveEntry entry, Set<String> entryPoints) {
+        for (String line : readText(archive, entry).split("\\R")) {
+            int comment = line.indexOf('#');
+            String className = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (!className.isEmpty()) {
+                entryPoints.add(className);
+            }
+        }
+    }
+    
+    /**
+     * 读取spring.factories，值为逗号分隔的类名列表
+     */
+    private static void readSpringFactories(ArchiveReader archive, ArchiveEntry entry, Set<String> entryPoints) {
+        Properties properties = new Properties();
+        try {
+            properties.load(new StringReader(readText(archive, entry)));
+        } catch (IOException e) {
+            logger.warn("解析spring.factories失败: {}, 错误: {}", entry.getName(), e.getMessage());
+            return;
+        }
+        for (String key : properties.stringPropertyNames()) {
+            for (String className : properties.getProperty(key).split(",")) {
+                if (!className.isBlank()) {
+                    entryPoints.add(className.trim());
+                }
+            }
+        }
+    }
+    
+    private static String readText(ArchiveReader archive, ArchiveEntry entry) {
+        try (InputStream is = archive.open(entry)) {
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("读取元数据文件失败: {}, 错误: {}", entry.getName(), e.getMessage());
+            return "";
+        }
+    }
+}
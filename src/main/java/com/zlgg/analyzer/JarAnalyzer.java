@@ -1,28 +1,27 @@
 package com.zlgg.analyzer;
 
+import com.zlgg.model.AnalysisMetrics;
+import com.zlgg.model.AnalysisOptions;
 import com.zlgg.model.AnalysisResult;
 import com.zlgg.model.ClassDependency;
+import com.zlgg.model.DependencyGraph;
 import com.zlgg.model.JarInfo;
 import com.zlgg.model.BuildConfiguration;
+import com.zlgg.model.SymbolTable;
+import com.zlgg.util.CancellationToken;
 import com.zlgg.util.ModuleMapper;
+import com.zlgg.util.ProgressReporter;
 import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassVisitor;
-import org.objectweb.asm.Opcodes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 
 /**
@@ -46,10 +45,48 @@ public class JarAnalyzer {
         "BOOT-INF/", "org.springframework.boot"
     );
     
+    // 各阶段在整体进度中所占的比例，按阶段顺序依次划分
+    private static final Map<AnalysisMetrics.Phase, Double> PROGRESS_WEIGHTS = Map.of(
+        AnalysisMetrics.Phase.JAR_INFO, 0.20,
+        AnalysisMetrics.Phase.CLASS_SCAN, 0.50,
+        AnalysisMetrics.Phase.SPRING_BOOT, 0.20,
+        AnalysisMetrics.Phase.JAVAFX_DETECTION, 0.05,
+        AnalysisMetrics.Phase.RUNTIME_MODULES, 0.03,
+        AnalysisMetrics.Phase.JDEPS, 0.02
+    );
+    
     private final ModuleMapper moduleMapper;
+    private final AnalysisOptions options;
+    private final AnalysisCache cache;
     
     public JarAnalyzer() {
-        this.moduleMapper = new ModuleMapper();
+        this(AnalysisOptions.defaults());
+    }
+    
+    public JarAnalyzer(AnalysisOptions options) {
+        this(options, new ModuleMapper());
+    }
+    
+    /**
+     * 批量分析时多个分析器共用同一个模块映射器
+     */
+    JarAnalyzer(AnalysisOptions options, ModuleMapper moduleMapper) {
+        this.moduleMapper = moduleMapper;
+        this.options = options;
+        // 不同扫描方式得到的依赖不完全相同，缓存按扫描方式分目录保存；
+        // 缓存中的模块取决于当前JDK的系统模块，再按JDK标识分目录，换用其他JDK时不会读到过时的结果
+        this.cache = options.getCacheDirectory() != null
+            ? new AnalysisCache(options.getCacheDirectory()
+                                    .resolve(options.getScanMode().name().toLowerCase())
+                                    .resolve(ModuleMapper.jdkIdentity()))
+            : null;
+    }
+    
+    /**
+     * 获取分析选项
+     */
+    public AnalysisOptions getOptions() {
+        return options;
     }
     
     /**
@@ -61,75 +98,7 @@ public class JarAnalyzer {
      * @throws IOException 文件读取异常
      */
     public AnalysisResult analyze(Path jarPath, Consumer<Double> progressCallback) throws IOException {
-        long startTime = System.currentTimeMillis();
-        
-        // 初始化进度
-        progressCallback.accept(0.0);
-        
-        try (JarFile jarFile = new JarFile(jarPath.toFile())) {
-            // 第一阶段：收集基本信息 (0-20%)
-            logger.debug("第一阶段：收集JAR基本信息");
-            JarInfo jarInfo = collectJarInfo(jarFile, jarPath);
-            progressCallback.accept(20.0);
-            
-            // 第二阶段：分析类文件 (20-70%)
-            logger.debug("第二阶段：分析类文件依赖关系");
-            Map<String, ClassDependency> classDependencies = new ConcurrentHashMap<>();
-            Set<String> requiredModules = ConcurrentHashMap.newKeySet();
-            Set<String> externalJars = ConcurrentHashMap.newKeySet();
-            
-            analyzeClasses(jarFile, classDependencies, requiredModules, externalJars, 
-                          progress -> progressCallback.accept(20.0 + progress * 0.5));
-            
-            // 第三阶段：处理Spring Boot结构 (70-90%)
-            if (jarInfo.isSpringBootJar()) {
-                logger.debug("第三阶段：分析Spring Boot依赖结构");
-                analyzeSpringBootDependencies(jarFile, classDependencies, requiredModules, externalJars,
-                                            progress -> progressCallback.accept(70.0 + progress * 0.2));
-                
-                // 强制添加Spring Boot必需的模块（解决运行时动态加载的问题）
-                addSpringBootEssentialModules(requiredModules);
-            }
-            progressCallback.accept(90.0);
-            
-            // 第四阶段：检测JavaFX依赖 (90-95%)
-            logger.debug("第四阶段：检测JavaFX依赖");
-            boolean requiresJavaFx = detectJavaFxDependencyEnhanced(jarFile, classDependencies.values());
-            if (requiresJavaFx) {
-                logger.debug("检测到JavaFX依赖，智能添加相关模块");
-                addJavaFxModules(jarFile, requiredModules, classDependencies.values());
-            }
-            progressCallback.accept(95.0);
-            
-            // 第五阶段：添加常用的运行时必需模块 (95-98%)
-            logger.debug("第五阶段：添加运行时必需模块");
-            addCommonRuntimeModules(requiredModules, classDependencies.values(), null);
-            progressCallback.accept(98.0);
-            
-            // 第六阶段：使用jdeps补充分析 (98-100%)
-            if (requiredModules.size() < 8) { // 如果检测到的模块太少，用jdeps补充
-                logger.debug("检测到的模块较少({}个)，使用jdeps补充分析", requiredModules.size());
-                supplementWithJdeps(jarPath, requiredModules);
-            }
-            progressCallback.accept(100.0);
-            
-            long analysisTime = System.currentTimeMillis() - startTime;
-            
-            AnalysisResult result = new AnalysisResult(
-                jarInfo,
-                requiredModules,
-                new ArrayList<>(classDependencies.values()),
-                new ArrayList<>(externalJars),
-                requiresJavaFx,
-                analysisTime
-            );
-            
-            // 只在控制台记录最终的分析结果摘要
-            logger.info("JAR分析完成: {}ms, {}个模块, {}个类", 
-                       analysisTime, requiredModules.size(), classDependencies.size());
-            
-            return result;
-        }
+        return analyze(jarPath, progressCallback, null);
     }
     
     /**
@@ -142,85 +111,236 @@ public class JarAnalyzer {
      * @throws IOException 文件读取异常
      */
     public AnalysisResult analyze(Path jarPath, Consumer<Double> progressCallback, BuildConfiguration buildConfig) throws IOException {
+        return analyze(jarPath, ProgressReporter.of(progressCallback, 100.0), buildConfig);
+    }
+    
+    /**
+     * 分析JAR文件
+     * 
+     * @param jarPath JAR文件路径
+     * @param progress 进度上报器，分析过程中可随时读取进度
+     * @param buildConfig 构建配置
+     * @return 分析结果
+     * @throws IOException 文件读取异常
+     */
+    public AnalysisResult analyze(Path jarPath, ProgressReporter progress, BuildConfiguration buildConfig) throws IOException {
+        return analyze(jarPath, progress, buildConfig, CancellationToken.none());
+    }
+    
+    /**
+     * 分析JAR文件，可以通过取消令牌中途停止
+     * 令牌在各阶段之间、类文件批次之间和内嵌JAR之间检查，后台的jdeps进程在取消时立即结束
+     * 
+     * @param jarPath JAR文件路径
+     * @param progress 进度上报器，分析过程中可随时读取进度
+     * @param buildConfig 构建配置
+     * @param cancellation 取消令牌
+     * @return 分析结果
+     * @throws IOException 文件读取异常
+     * @throws java.util.concurrent.CancellationException 分析被取消
+     */
+    public AnalysisResult analyze(Path jarPath, ProgressReporter progress, BuildConfiguration buildConfig,
+                                  CancellationToken cancellation) throws IOException {
+        return analyze(jarPath, progress, buildConfig, new ModuleLookupCache(moduleMapper, new SymbolTable()), cancellation);
+    }
+    
+    /**
+     * 分析JAR文件，类名登记到查找缓存所绑定的符号表中
+     * 批量分析时多个JAR共用同一个符号表和查找缓存，公共依赖库的类名只保存一份、只映射一次模块
+     */
+    AnalysisResult analyze(Path jarPath, ProgressReporter progress, BuildConfiguration buildConfig,
+                           ModuleLookupCache moduleLookup, CancellationToken cancellation) throws IOException {
         long startTime = System.currentTimeMillis();
+        SymbolTable symbols = moduleLookup.getSymbols();
+        cancellation.throwIfCancelled();
         
-        // 初始化进度
-        progressCallback.accept(0.0);
+        // 预先在后台启动的jdeps，只在开启concurrentJdeps且未命中分析缓存时启动
+        CompletableFuture<Set<String>> jdepsModules = null;
         
-        try (JarFile jarFile = new JarFile(jarPath.toFile())) {
-            // 第一阶段：收集基本信息 (0-20%)
+        PhaseRecorder metrics = new PhaseRecorder(jarPath.getFileName().toString());
+        metrics.begin(AnalysisMetrics.Phase.JAR_INFO);
+        try (ArchiveReader archive = openArchive(jarPath)) {
+            // 第一阶段：收集基本信息
             logger.debug("第一阶段：收集JAR基本信息");
-            JarInfo jarInfo = collectJarInfo(jarFile, jarPath);
-            progressCallback.accept(20.0);
-            
-            // 第二阶段：分析类文件 (20-70%)
+            JarEntryCatalog catalog = JarEntryCatalog.scan(archive);
+            metrics.addEntriesVisited(catalog.getAllEntries().size());
+            JarInfo jarInfo = collectJarInfo(catalog, jarPath);
+            metrics.end(0);
+            progress.child(progressWeight(AnalysisMetrics.Phase.JAR_INFO)).complete();
+            
+            // 第二阶段：分析类文件
+            cancellation.throwIfCancelled();
             logger.debug("第二阶段：分析类文件依赖关系");
+            metrics.begin(AnalysisMetrics.Phase.CLASS_SCAN);
             Map<String, ClassDependency> classDependencies = new ConcurrentHashMap<>();
             Set<String> requiredModules = ConcurrentHashMap.newKeySet();
             Set<String> externalJars = ConcurrentHashMap.newKeySet();
             
-            analyzeClasses(jarFile, classDependencies, requiredModules, externalJars, 
-                          progress -> progressCallback.accept(20.0 + progress * 0.5));
-            
-            // 第三阶段：处理Spring Boot结构 (70-90%)
+            ProgressReporter classProgress = progress.child(progressWeight(AnalysisMetrics.Phase.CLASS_SCAN));
+            String cacheKey = null;
+            JarSummary cached = null;
+            if (cache != null) {
+                cacheKey = AnalysisCache.sha256(jarPath);
+                metrics.addBytesRead(Files.size(jarPath));
+                cached = cache.load(cacheKey, symbols);
+            }
+            if (cached == null && options.isConcurrentJdeps()) {
+                // 需要完整分析类文件时，提前启动jdeps进程与之同时进行；不需要结果时结束进程
+                jdepsModules = JdepsRunner.startSpeculative(jarPath, cancellation);
+            }
+            analyzeClasses(catalog, moduleLookup, metrics, classDependencies, requiredModules, cacheKey, cached,
+                          classProgress.asConsumer(), cancellation);
+            metrics.end(requiredModules.size());
+            classProgress.complete();
+            
+            // 第三阶段：处理Spring Boot结构
+            Set<String> nestedEntryPoints = ConcurrentHashMap.newKeySet();
+            ProgressReporter springBootProgress = progress.child(progressWeight(AnalysisMetrics.Phase.SPRING_BOOT));
+            cancellation.throwIfCancelled();
             if (jarInfo.isSpringBootJar()) {
                 logger.debug("第三阶段：分析Spring Boot依赖结构");
-                analyzeSpringBootDependencies(jarFile, classDependencies, requiredModules, externalJars,
-                                            progress -> progressCallback.accept(70.0 + progress * 0.2));
-                
-                // 强制添加Spring Boot必需的模块（解决运行时动态加载的问题）
+                metrics.begin(AnalysisMetrics.Phase.SPRING_BOOT);
+                analyzeSpringBootDependencies(catalog, moduleLookup, metrics, classDependencies, requiredModules,
+                                            externalJars, nestedEntryPoints, springBootProgress.asConsumer(),
+                                            cancellation);
+                metrics.end(requiredModules.size());
+            }
+            
+            // 依赖图压缩和可达性分析处理的是类文件分析的结果，计入类文件分析阶段
+            cancellation.throwIfCancelled();
+            metrics.begin(AnalysisMetrics.Phase.CLASS_SCAN);
+            long fxmlBytesRead = catalog.getFxmlBytesRead();
+            
+            // 压缩为CSR依赖图，之后各阶段都通过依赖图访问类依赖，释放逐个类的依赖数组
+            DependencyGraph dependencyGraph = DependencyGraph.of(classDependencies.values(), symbols);
+            classDependencies.clear();
+            List<ClassDependency> classes = dependencyGraph.asClassDependencies();
+            
+            // 可达性分析：只保留从入口类可达的类所引用的模块
+            if (options.isReachabilityAnalysis()) {
+                applyReachability(catalog, dependencyGraph, requiredModules, nestedEntryPoints);
+            }
+            metrics.addBytesRead(catalog.getFxmlBytesRead() - fxmlBytesRead);
+            metrics.end(requiredModules.size());
+            
+            if (jarInfo.isSpringBootJar() && !options.isAnalyzeNestedJars()) {
+                // 未分析依赖JAR时，强制添加Spring Boot常用模块（弥补缺失的依赖信息）
+                metrics.begin(AnalysisMetrics.Phase.SPRING_BOOT);
                 addSpringBootEssentialModules(requiredModules);
+                metrics.end(requiredModules.size());
             }
-            progressCallback.accept(90.0);
+            springBootProgress.complete();
             
-            // 第四阶段：检测JavaFX依赖 (90-95%)
+            // 第四阶段：检测JavaFX依赖
+            cancellation.throwIfCancelled();
             logger.debug("第四阶段：检测JavaFX依赖");
-            boolean requiresJavaFx = detectJavaFxDependencyEnhanced(jarFile, classDependencies.values());
+            metrics.begin(AnalysisMetrics.Phase.JAVAFX_DETECTION);
+            fxmlBytesRead = catalog.getFxmlBytesRead();
+            boolean requiresJavaFx = detectJavaFxDependencyEnhanced(catalog, classes);
             if (requiresJavaFx) {
                 logger.debug("检测到JavaFX依赖，智能添加相关模块");
-                addJavaFxModules(jarFile, requiredModules, classDependencies.values());
+                addJavaFxModules(catalog, requiredModules, classes);
             }
-            progressCallback.accept(95.0);
+            metrics.addEntriesVisited(catalog.count(JarEntryCatalog.EntryKind.FXML));
+            metrics.addBytesRead(catalog.getFxmlBytesRead() - fxmlBytesRead);
+            metrics.end(requiredModules.size());
+            progress.child(progressWeight(AnalysisMetrics.Phase.JAVAFX_DETECTION)).complete();
             
-            // 第五阶段：添加常用的运行时必需模块 (95-98%)
+            // 第五阶段：添加常用的运行时必需模块
             logger.debug("第五阶段：添加运行时必需模块");
-            addCommonRuntimeModules(requiredModules, classDependencies.values(), buildConfig);
-            progressCallback.accept(98.0);
+            metrics.begin(AnalysisMetrics.Phase.RUNTIME_MODULES);
+            addCommonRuntimeModules(requiredModules, classes, buildConfig);
+            metrics.end(requiredModules.size());
+            progress.child(progressWeight(AnalysisMetrics.Phase.RUNTIME_MODULES)).complete();
             
-            // 第六阶段：使用jdeps补充分析 (98-100%)
+            // 第六阶段：使用jdeps补充分析
+            cancellation.throwIfCancelled();
             if (requiredModules.size() < 8) { // 如果检测到的模块太少，用jdeps补充
                 logger.debug("检测到的模块较少({}个)，使用jdeps补充分析", requiredModules.size());
-                supplementWithJdeps(jarPath, requiredModules);
+                // 后台运行的jdeps只计入等待结果的时间
+                metrics.begin(AnalysisMetrics.Phase.JDEPS);
+                // 在后台线程中运行，取消时不必等待无法中途停止的进程内jdeps
+                requiredModules.addAll((jdepsModules != null ? jdepsModules : JdepsRunner.start(jarPath, cancellation)).join());
+                metrics.addBytesRead(jarInfo.getJarSize());
+                metrics.end(requiredModules.size());
+                logger.debug("jdeps补充后模块总数: {}", requiredModules.size());
             }
-            progressCallback.accept(100.0);
+            progress.complete();
             
             long analysisTime = System.currentTimeMillis() - startTime;
+            AnalysisMetrics analysisMetrics = metrics.toMetrics();
             
             AnalysisResult result = new AnalysisResult(
                 jarInfo,
                 requiredModules,
-                new ArrayList<>(classDependencies.values()),
+                dependencyGraph,
                 new ArrayList<>(externalJars),
                 requiresJavaFx,
-                analysisTime
+                analysisTime,
+                analysisMetrics
             );
             
             // 只在控制台记录最终的分析结果摘要
             logger.info("JAR分析完成: {}ms, {}个模块, {}个类", 
-                       analysisTime, requiredModules.size(), classDependencies.size());
+                       analysisTime, requiredModules.size(), dependencyGraph.getClassCount());
+            logger.debug("分阶段指标: {}", analysisMetrics);
+            if (cache != null) {
+                logger.debug("分析缓存累计命中 {} 次，未命中 {} 次", cache.getHitCount(), cache.getMissCount());
+            }
+            logger.debug("模块查找缓存累计命中 {} 次，未命中 {} 次，命中率 {}%", moduleLookup.getHitCount(),
+                       moduleLookup.getMissCount(), String.format("%.1f", moduleLookup.getHitRate() * 100));
             
             return result;
+        } finally {
+            // 不需要jdeps补充或分析失败时停止后台的jdeps
+            if (jdepsModules != null && !jdepsModules.isDone()) {
+                jdepsModules.cancel(true);
+            }
+        }
+    }
+    
+    private static double progressWeight(AnalysisMetrics.Phase phase) {
+        return PROGRESS_WEIGHTS.get(phase);
+    }
+    
+    /**
+     * 按分析选项打开JAR文件
+     * 大文件使用内存映射读取，避免JarFile为每个条目创建堆对象
+     */
+    private ArchiveReader openArchive(Path jarPath) throws IOException {
+        boolean useMapped;
+        switch (options.getArchiveAccess()) {
+            case MEMORY_MAPPED:
+                useMapped = true;
+                break;
+            case JAR_FILE:
+                useMapped = false;
+                break;
+            default:
+                useMapped = Files.size(jarPath) >= options.getMappedArchiveThreshold();
+                break;
+        }
+        
+        if (useMapped) {
+            try {
+                ArchiveReader archive = MappedZipArchive.open(jarPath);
+                logger.debug("使用内存映射读取JAR: {}", jarPath.getFileName());
+                return archive;
+            } catch (IOException e) {
+                logger.warn("内存映射读取JAR失败，改用JarFile: {}", e.getMessage());
+            }
         }
+        return new JarFileArchive(jarPath);
     }
     
     /**
      * 收集JAR基本信息
      */
-    private JarInfo collectJarInfo(JarFile jarFile, Path jarPath) throws IOException {
+    private JarInfo collectJarInfo(JarEntryCatalog catalog, Path jarPath) throws IOException {
         logger.debug("收集JAR基本信息: {}", jarPath.getFileName());
         
         // 读取Manifest信息
-        Manifest manifest = jarFile.getManifest();
+        Manifest manifest = catalog.getArchive().getManifest();
         String mainClass = null;
         String version = null;
         
@@ -233,33 +353,19 @@ public class JarAnalyzer {
             }
         }
         
-        // 统计信息
-        int classCount = 0;
-        int dependencyCount = 0;
-        boolean isSpringBootJar = false;
-        boolean isJavaFxApp = false;
+        // 统计信息（来自条目目录，无需再次遍历JAR）
+        int classCount = catalog.count(JarEntryCatalog.EntryKind.CLASS);
+        int dependencyCount = catalog.count(JarEntryCatalog.EntryKind.NESTED_JAR);
         
-        Enumeration<JarEntry> entries = jarFile.entries();
-        while (entries.hasMoreElements()) {
-            JarEntry entry = entries.nextElement();
-            String entryName = entry.getName();
-            
-            if (entryName.endsWith(".class")) {
-                classCount++;
-                
-                // 检测JavaFX应用
-                if (!isJavaFxApp && isJavaFxClass(entryName)) {
-                    isJavaFxApp = true;
-                }
-            } else if (entryName.endsWith(".jar")) {
-                dependencyCount++;
-            }
-            
-            // 检测Spring Boot应用
-            if (!isSpringBootJar && SPRING_BOOT_INDICATORS.stream().anyMatch(entryName::startsWith)) {
-                isSpringBootJar = true;
-                logger.debug("检测到Spring Boot应用结构");
-            }
+        // 检测JavaFX应用
+        boolean isJavaFxApp = catalog.getEntries(JarEntryCatalog.EntryKind.CLASS).stream()
+            .anyMatch(entry -> isJavaFxClass(entry.getName()));
+        
+        // 检测Spring Boot应用
+        boolean isSpringBootJar = catalog.getAllEntries().stream()
+            .anyMatch(entry -> SPRING_BOOT_INDICATORS.stream().anyMatch(entry.getName()::startsWith));
+        if (isSpringBootJar) {
+            logger.debug("检测到Spring Boot应用结构");
         }
         
         logger.debug("JAR文件统计: {} 个类文件, {} 个依赖JAR", classCount, dependencyCount);
@@ -281,50 +387,50 @@ public class JarAnalyzer {
     
     /**
      * 分析类文件依赖关系
+     * 命中分析缓存时（cached不为null）直接复用上次的分析摘要，不再进行ASM分析
+     *
+     * @param cacheKey 分析缓存的键，不使用缓存时为null
+     * @param cached 缓存中的分析摘要，未命中时为null
      */
-    private void analyzeClasses(JarFile jarFile, 
+    private void analyzeClasses(JarEntryCatalog catalog, 
+                               ModuleLookupCache moduleLookup,
+                               PhaseRecorder metrics,
                                Map<String, ClassDependency> classDependencies,
                                Set<String> requiredModules,
-                               Set<String> externalJars,
-                               Consumer<Double> progressCallback) {
+                               String cacheKey,
+                               JarSummary cached,
+                               Consumer<Double> progressCallback,
+                               CancellationToken cancellation) throws IOException {
+        
+        if (cached != null) {
+            cached.getClasses().forEach(classDep -> classDependencies.put(classDep.getClassName(), classDep));
+            requiredModules.addAll(cached.getModules());
+            progressCallback.accept(1.0);
+            logger.debug("命中分析缓存，复用 {} 个类的依赖信息", cached.getClassCount());
+            return;
+        }
         
         logger.debug("开始分析类文件依赖关系");
         
-        List<JarEntry> classEntries = new ArrayList<>();
-        Enumeration<JarEntry> entries = jarFile.entries();
-        
-        // 收集所有类文件（包括内部类，因为它们可能包含重要的依赖关系）
-        while (entries.hasMoreElements()) {
-            JarEntry entry = entries.nextElement();
-            if (entry.getName().endsWith(".class")) {
-                classEntries.add(entry);
-            }
-        }
-        
-        int totalClasses = classEntries.size();
-        int processedClasses = 0;
+        // 所有类文件（包括内部类，因为它们可能包含重要的依赖关系）
+        List<ArchiveEntry> classEntries = catalog.getEntries(JarEntryCatalog.EntryKind.CLASS);
         
-        logger.debug("开始分析 {} 个类文件", totalClasses);
+        // 按JAR中的顺序收集本JAR的结果，便于写入缓存
+        Map<String, ClassDependency> jarClasses = new LinkedHashMap<>();
+        Set<String> jarModules = ConcurrentHashMap.newKeySet();
+        ClassAnalysisEngine engine = new ClassAnalysisEngine(options.getParallelism(), options.getBatchSize(), metrics,
+                                                             cancellation);
+        int processedClasses = engine.analyze(catalog.getArchive(), classEntries,
+                                              (buffer, offset, length) -> analyzeClassFile(buffer, offset, length, jarModules, moduleLookup),
+                                              jarClasses, progressCallback);
+        classDependencies.putAll(jarClasses);
+        requiredModules.addAll(jarModules);
         
-        for (JarEntry entry : classEntries) {
-            try {
-                analyzeClassFile(jarFile, entry, classDependencies, requiredModules);
-                processedClasses++;
-                
-                // 更新进度
-                double progress = (double) processedClasses / totalClasses;
-                progressCallback.accept(progress);
-                
-                // 每处理10%的类文件输出一次日志
-                if (processedClasses % Math.max(1, totalClasses / 10) == 0) {
-                    logger.debug("已处理 {}/{} 个类文件 ({}%)", 
-                               processedClasses, totalClasses, 
-                               String.format("%.1f", progress * 100));
-                }
-                
-            } catch (Exception e) {
-                logger.warn("分析类文件失败: {}, 错误: {}", entry.getName(), e.getMessage());
-            }
+        if (cacheKey != null) {
+            JarSummary summary = new JarSummary();
+            jarClasses.values().forEach(summary::addClass);
+            summary.addModules(jarModules);
+            cache.store(cacheKey, summary);
         }
         
         logger.debug("类文件分析完成，共处理 {} 个类", processedClasses);
@@ -332,80 +438,137 @@ public class JarAnalyzer {
     
     /**
      * 使用ASM分析单个类文件
+     * 可能在多个工作线程中并发调用，requiredModules必须是线程安全的集合。
+     * 依赖名称统一登记到符号表，类依赖只保存符号编号
      */
-    private void analyzeClassFile(JarFile jarFile, 
-                                 JarEntry entry,
-                                 Map<String, ClassDependency> classDependencies,
-                                 Set<String> requiredModules) throws IOException {
-        
-        try (InputStream is = jarFile.getInputStream(entry)) {
-            ClassReader classReader = new ClassReader(is);
+    private ClassDependency analyzeClassFile(byte[] buffer, int offset, int length,
+                                             Set<String> requiredModules, ModuleLookupCache moduleLookup) {
+        String className;
+        Set<String> dependencies;
+        if (options.getScanMode() == AnalysisOptions.ScanMode.CONSTANT_POOL) {
+            ConstantPoolScanner scanner = ConstantPoolScanner.scan(buffer, offset, length);
+            className = scanner.getClassName();
+            dependencies = scanner.getDependencies();
+        } else {
+            ClassReader classReader = new ClassReader(buffer, offset, length);
             
             DependencyCollector collector = new DependencyCollector();
             classReader.accept(collector, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
             
-            String className = classReader.getClassName().replace('/', '.');
-            Set<String> dependencies = collector.getDependencies();
-            
-            // 映射到Java模块
-            String javaModule = moduleMapper.getModuleForClass(className);
-            if (javaModule != null) {
-                requiredModules.add(javaModule);
-            }
-            
-            // 检查依赖的模块
-            for (String dep : dependencies) {
-                String depModule = moduleMapper.getModuleForClass(dep);
-                if (depModule != null) {
-                    requiredModules.add(depModule);
-                } else if (dep.startsWith("java.") || dep.startsWith("javax.")) {
-                    // 只记录可能重要的未映射类，忽略已知的第三方库
-                    if (!isKnownThirdPartyClass(dep)) {
-                        logger.debug("发现未映射的Java类: {}", dep);
-                    }
+            className = classReader.getClassName().replace('/', '.');
+            dependencies = collector.getDependencies();
+        }
+        
+        // 映射到Java模块
+        String javaModule = moduleMapper.getModuleForClass(className);
+        if (javaModule != null) {
+            requiredModules.add(javaModule);
+        }
+        
+        // 检查依赖的模块：依赖先登记到符号表，再按符号编号查找，重复出现的依赖直接命中查找缓存
+        SymbolTable symbols = moduleLookup.getSymbols();
+        int[] dependencySymbols = symbols.internAll(dependencies);
+        for (int symbol : dependencySymbols) {
+            String depModule = moduleLookup.moduleFor(symbol);
+            if (depModule != null) {
+                requiredModules.add(depModule);
+            } else {
+                String dep = symbols.name(symbol);
+                // 只记录可能重要的未映射类，忽略已知的第三方库
+                if ((dep.startsWith("java.") || dep.startsWith("javax.")) && !isKnownThirdPartyClass(dep)) {
+                    logger.debug("发现未映射的Java类: {}", dep);
                 }
             }
-            
-            boolean isJavaFxClass = isJavaFxClass(className);
-            
-            ClassDependency classDep = new ClassDependency(className, dependencies, javaModule, isJavaFxClass);
-            classDependencies.put(className, classDep);
         }
+        
+        boolean isJavaFxClass = isJavaFxClass(className);
+        
+        return new ClassDependency(className, dependencySymbols, symbols, javaModule, isJavaFxClass);
     }
     
     /**
      * 分析Spring Boot应用的依赖JAR
      */
-    private void analyzeSpringBootDependencies(JarFile jarFile,
+    private void analyzeSpringBootDependencies(JarEntryCatalog catalog,
+                                             ModuleLookupCache moduleLookup,
+                                             PhaseRecorder metrics,
                                              Map<String, ClassDependency> classDependencies,
                                              Set<String> requiredModules,
                                              Set<String> externalJars,
-                                             Consumer<Double> progressCallback) {
+                                             Set<String> nestedEntryPoints,
+                                             Consumer<Double> progressCallback,
+                                             CancellationToken cancellation) {
         
         logger.debug("分析Spring Boot依赖JAR");
-        
-        List<JarEntry> jarEntries = new ArrayList<>();
-        Enumeration<JarEntry> entries = jarFile.entries();
+        SymbolTable symbols = moduleLookup.getSymbols();
         
         // 收集BOOT-INF/lib/下的JAR文件
-        while (entries.hasMoreElements()) {
-            JarEntry entry = entries.nextElement();
-            if (entry.getName().startsWith("BOOT-INF/lib/") && entry.getName().endsWith(".jar")) {
-                jarEntries.add(entry);
-                externalJars.add(entry.getName());
+        List<ArchiveEntry> jarEntries = catalog.getNestedJars("BOOT-INF/lib/");
+        for (ArchiveEntry entry : jarEntries) {
+            externalJars.add(entry.getName());
+        }
+        logger.debug("发现 {} 个Spring Boot依赖JAR", jarEntries.size());
+        
+        if (!options.isAnalyzeNestedJars()) {
+            progressCallback.accept(1.0);
+            return;
+        }
+        
+        // 在内存中逐个分析依赖JAR的字节码，模块集合来自实际引用的类
+        int modulesBefore = requiredModules.size();
+        NestedJarAnalyzer nestedAnalyzer = new NestedJarAnalyzer(options.getParallelism(),
+            jarModules -> (buffer, offset, length) -> analyzeClassFile(buffer, offset, length, jarModules, moduleLookup),
+            symbols, cache, metrics, cancellation);
+        int analyzedJars = nestedAnalyzer.analyze(catalog.getArchive(), jarEntries, classDependencies,
+                                                  requiredModules, nestedEntryPoints, progressCallback);
+        
+        logger.info("分析了 {} 个Spring Boot依赖JAR，新增 {} 个模块",
+                   analyzedJars, requiredModules.size() - modulesBefore);
+    }
+    
+    /**
+     * 可达性分析
+     * 以Main-Class、Start-Class、元数据声明的入口类和自定义根类为起点遍历依赖图，
+     * 用可达类引用的模块替换全量分析得到的模块集合
+     */
+    private void applyReachability(JarEntryCatalog catalog,
+                                   DependencyGraph dependencyGraph,
+                                   Set<String> requiredModules,
+                                   Set<String> nestedEntryPoints) throws IOException {
+        
+        // JarInfo.getMainClass()在缺失时返回提示文字，这里直接读取Manifest
+        Set<String> roots = new LinkedHashSet<>();
+        Manifest manifest = catalog.getArchive().getManifest();
+        if (manifest != null) {
+            for (String attribute : new String[]{"Main-Class", "Start-Class"}) {
+                String className = manifest.getMainAttributes().getValue(attribute);
+                if (className != null) {
+                    roots.add(className.trim());
+                }
             }
         }
+        roots.addAll(EntryPointScanner.scan(catalog));
+        roots.addAll(nestedEntryPoints);
+        roots.addAll(options.getReachabilityRoots());
         
-        // 这里可以进一步分析内嵌的JAR文件，但考虑到性能和复杂性，暂时记录即可
-        logger.debug("发现 {} 个Spring Boot依赖JAR", jarEntries.size());
+        ReachabilityAnalyzer.Result result = new ReachabilityAnalyzer(moduleMapper).analyze(dependencyGraph, roots);
+        if (result.getReachableClasses() == 0) {
+            logger.warn("可达性分析未找到任何入口类，保留全量分析的模块集合");
+            return;
+        }
         
-        progressCallback.accept(1.0);
+        int modulesBefore = requiredModules.size();
+        requiredModules.clear();
+        requiredModules.addAll(result.getModules());
+        logger.info("可达性分析: {} 个根, 可达 {}/{} 个类, 模块 {} -> {} 个",
+                   roots.size(), result.getReachableClasses(), result.getTotalClasses(),
+                   modulesBefore, requiredModules.size());
     }
     
     /**
      * 增强的JavaFX依赖检测，包括FXML文件分析
      */
-    private boolean detectJavaFxDependencyEnhanced(JarFile jarFile, Collection<ClassDependency> classDependencies) {
+    private boolean detectJavaFxDependencyEnhanced(JarEntryCatalog catalog, Collection<ClassDependency> classDependencies) {
         // 首先检查类依赖
         boolean hasJavaFxClasses = classDependencies.stream().anyMatch(ClassDependency::isJavaFxClass);
         if (hasJavaFxClasses) {
@@ -413,24 +576,12 @@ public class JarAnalyzer {
         }
         
         // 检查FXML文件中的JavaFX组件引用
-        try {
-            Enumeration<JarEntry> entries = jarFile.entries();
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                if (entry.getName().endsWith(".fxml")) {
-                    try (InputStream is = jarFile.getInputStream(entry)) {
-                        String content = new String(is.readAllBytes(), "UTF-8");
-                        // 检查是否包含HTMLEditor或其他Web组件
-                        if (content.contains("HTMLEditor") || content.contains("WebView") || 
-                            content.contains("WebEngine") || content.contains("javafx.scene.web")) {
-                            logger.debug("在FXML文件 {} 中检测到JavaFX Web组件", entry.getName());
-                            return true;
-                        }
-                    }
-                }
+        for (Map.Entry<String, String> fxml : catalog.getFxmlContents().entrySet()) {
+            // 检查是否包含HTMLEditor或其他Web组件
+            if (containsWebComponents(fxml.getValue())) {
+                logger.debug("在FXML文件 {} 中检测到JavaFX Web组件", fxml.getKey());
+                return true;
             }
-        } catch (Exception e) {
-            logger.warn("分析FXML文件时出错: {}", e.getMessage());
         }
         
         return false;
@@ -439,7 +590,7 @@ public class JarAnalyzer {
     /**
      * 智能添加JavaFX相关模块 - 只添加实际需要的模块
      */
-    private void addJavaFxModules(JarFile jarFile, Set<String> requiredModules, Collection<ClassDependency> classDependencies) {
+    private void addJavaFxModules(JarEntryCatalog catalog, Set<String> requiredModules, Collection<ClassDependency> classDependencies) {
         // 基础模块 - JavaFX应用必需
         requiredModules.addAll(Arrays.asList(
             "javafx.base",
@@ -453,14 +604,14 @@ public class JarAnalyzer {
         }
         
         // 检查是否需要FXML模块
-        if (needsJavaFxModule(classDependencies, "javafx.fxml") || hasResourceFiles(jarFile, ".fxml")) {
+        if (needsJavaFxModule(classDependencies, "javafx.fxml") || catalog.hasEntries(JarEntryCatalog.EntryKind.FXML)) {
             requiredModules.add("javafx.fxml");
             logger.debug("检测到FXML依赖，添加javafx.fxml模块");
         }
         
         // 检查是否需要Web模块
         boolean hasWebDependencies = needsJavaFxModule(classDependencies, "javafx.scene.web");
-        boolean hasWebInFxml = hasResourceFiles(jarFile, ".fxml") && hasWebComponentsInFxml(jarFile);
+        boolean hasWebInFxml = hasWebComponentsInFxml(catalog);
         logger.debug("JavaFX Web检测: 类依赖={}, FXML组件={}", hasWebDependencies, hasWebInFxml);
         
         if (hasWebDependencies || hasWebInFxml) {
@@ -506,50 +657,23 @@ public class JarAnalyzer {
     }
     
     /**
-     * 检查是否有特定类型的资源文件
+     * 检查FXML文件中是否包含Web组件
      */
-    private boolean hasResourceFiles(JarFile jarFile, String extension) {
-        try {
-            Enumeration<JarEntry> entries = jarFile.entries();
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                if (entry.getName().endsWith(extension)) {
-                    return true;
-                }
-            }
-        } catch (Exception e) {
-            logger.warn("检查资源文件时出错: {}", e.getMessage());
-        }
-        return false;
+    private boolean hasWebComponentsInFxml(JarEntryCatalog catalog) {
+        return catalog.getFxmlContents().values().stream().anyMatch(this::containsWebComponents);
     }
     
     /**
-     * 检查FXML文件中是否包含Web组件
+     * 检查FXML内容是否引用了HTMLEditor等Web组件
      */
-    private boolean hasWebComponentsInFxml(JarFile jarFile) {
-        try {
-            Enumeration<JarEntry> entries = jarFile.entries();
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                if (entry.getName().endsWith(".fxml")) {
-                    try (InputStream is = jarFile.getInputStream(entry)) {
-                        String content = new String(is.readAllBytes(), "UTF-8");
-                        if (content.contains("HTMLEditor") || content.contains("WebView") || 
-                            content.contains("WebEngine") || content.contains("javafx.scene.web")) {
-                            return true;
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            logger.warn("分析FXML文件时出错: {}", e.getMessage());
-        }
-        return false;
+    private boolean containsWebComponents(String content) {
+        return content.contains("HTMLEditor") || content.contains("WebView") || 
+               content.contains("WebEngine") || content.contains("javafx.scene.web");
     }
     
     /**
      * 添加Spring Boot应用必需的模块
-     * 这些模块经常在运行时动态加载，静态分析难以发现
+     * 这些模块经常在运行时动态加载，静态分析难以发现；仅在未分析依赖JAR时使用
      */
     private void addSpringBootEssentialModules(Set<String> requiredModules) {
         // 基于实际Spring Boot应用运行经验，这些模块是必需的
@@ -816,62 +940,6 @@ public class JarAnalyzer {
         }
     }
     
-    /**
-     * 使用jdeps补充模块分析
-     */
-    private void supplementWithJdeps(Path jarPath, Set<String> requiredModules) {
-        try {
-            // 构建jdeps命令
-            String javaHome = System.getProperty("java.home");
-            Path jdepsPath = Paths.get(javaHome, "bin", "jdeps" + (System.getProperty("os.name").toLowerCase().contains("windows") ? ".exe" : ""));
-            
-            if (!Files.exists(jdepsPath)) {
-                logger.warn("jdeps工具不存在: {}", jdepsPath);
-                return;
-            }
-            
-            List<String> command = new ArrayList<>();
-            command.add(jdepsPath.toString());
-            command.add("--print-module-deps");
-            command.add("--ignore-missing-deps"); // 忽略缺失的依赖
-            command.add(jarPath.toString());
-            
-            logger.debug("执行jdeps命令: {}", String.join(" ", command));
-            
-            ProcessBuilder processBuilder = new ProcessBuilder(command);
-            Process process = processBuilder.start();
-            
-            // 读取输出
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    line = line.trim();
-                    if (!line.isEmpty()) {
-                        // jdeps输出的是逗号分隔的模块列表
-                        String[] modules = line.split(",");
-                        for (String module : modules) {
-                            module = module.trim();
-                            if (!module.isEmpty()) {
-                                requiredModules.add(module);
-                                logger.debug("jdeps发现模块: {}", module);
-                            }
-                        }
-                    }
-                }
-            }
-            
-            int exitCode = process.waitFor();
-            if (exitCode == 0) {
-                logger.debug("jdeps分析完成，当前模块总数: {}", requiredModules.size());
-            } else {
-                logger.warn("jdeps分析失败，退出码: {}", exitCode);
-            }
-            
-        } catch (Exception e) {
-            logger.warn("jdeps补充分析失败: {}", e.getMessage());
-        }
-    }
-    
     /**
      * 检查是否为JavaFX类
      */
@@ -905,160 +973,4 @@ public class JarAnalyzer {
                className.startsWith("javax.resource.");          // JCA
     }
     
-    /**
-     * ASM类访问器，用于收集类依赖关系
-     */
-    private static class DependencyCollector extends ClassVisitor {
-        
-        private final Set<String> dependencies = new HashSet<>();
-        
-        public DependencyCollector() {
-            super(Opcodes.ASM9);
-        }
-        
-        @Override
-        public void visit(int version, int access, String name, String signature, 
-                         String superName, String[] interfaces) {
-            if (superName != null) {
-                addDependency(superName);
-            }
-            if (interfaces != null) {
-                for (String iface : interfaces) {
-                    addDependency(iface);
-                }
-            }
-        }
-        
-        @Override
-        public org.objectweb.asm.FieldVisitor visitField(int access, String name, String descriptor, 
-                                                        String signature, Object value) {
-            // 解析字段类型
-            parseTypeDescriptor(descriptor);
-            if (signature != null) {
-                parseSignature(signature);
-            }
-            return null;
-        }
-        
-        @Override
-        public org.objectweb.asm.MethodVisitor visitMethod(int access, String name, String descriptor, 
-                                                          String signature, String[] exceptions) {
-            // 解析方法签名
-            parseMethodDescriptor(descriptor);
-            if (signature != null) {
-                parseSignature(signature);
-            }
-            if (exceptions != null) {
-                for (String exception : exceptions) {
-                    addDependency(exception);
-                }
-            }
-            
-            // 返回方法访问器来分析方法体中的依赖
-            return new org.objectweb.asm.MethodVisitor(Opcodes.ASM9) {
-                @Override
-                public void visitTypeInsn(int opcode, String type) {
-                    addDependency(type);
-                }
-                
-                @Override
-                public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
-                    addDependency(owner);
-                    parseTypeDescriptor(descriptor);
-                }
-                
-                @Override
-                public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
-                    addDependency(owner);
-                    parseMethodDescriptor(descriptor);
-                }
-                
-                @Override
-                public void visitLdcInsn(Object value) {
-                    if (value instanceof org.objectweb.asm.Type) {
-                        org.objectweb.asm.Type type = (org.objectweb.asm.Type) value;
-                        if (type.getSort() == org.objectweb.asm.Type.OBJECT) {
-                            addDependency(type.getInternalName());
-                        }
-                    }
-                }
-                
-                @Override
-                public void visitLocalVariable(String name, String descriptor, String signature, 
-                                             org.objectweb.asm.Label start, org.objectweb.asm.Label end, int index) {
-                    parseTypeDescriptor(descriptor);
-                    if (signature != null) {
-                        parseSignature(signature);
-                    }
-                }
-            };
-        }
-        
-        @Override
-        public void visitInnerClass(String name, String outerName, String innerName, int access) {
-            addDependency(name);
-        }
-        
-        private void parseTypeDescriptor(String descriptor) {
-            org.objectweb.asm.Type type = org.objectweb.asm.Type.getType(descriptor);
-            addTypeReference(type);
-        }
-        
-        private void parseMethodDescriptor(String descriptor) {
-            org.objectweb.asm.Type methodType = org.objectweb.asm.Type.getMethodType(descriptor);
-            addTypeReference(methodType.getReturnType());
-            for (org.objectweb.asm.Type argType : methodType.getArgumentTypes()) {
-                addTypeReference(argType);
-            }
-        }
-        
-        private void parseSignature(String signature) {
-            // 简单的泛型签名解析
-            if (signature != null) {
-                // 提取L...;格式的类引用
-                int start = 0;
-                while ((start = signature.indexOf('L', start)) != -1) {
-                    int end = signature.indexOf(';', start);
-                    if (end != -1) {
-                        String className = signature.substring(start + 1, end);
-                        addDependency(className);
-                        start = end + 1;
-                    } else {
-                        break;
-                    }
-                }
-            }
-        }
-        
-        private void addTypeReference(org.objectweb.asm.Type type) {
-            if (type.getSort() == org.objectweb.asm.Type.OBJECT) {
-                addDependency(type.getInternalName());
-            } else if (type.getSort() == org.objectweb.asm.Type.ARRAY) {
-                addTypeReference(type.getElementType());
-            }
-        }
-        
-        private void addDependency(String internalName) {
-            if (internalName != null && !internalName.startsWith("java/lang/Object")) {
-                // 转换内部类名为标准类名
-                String className = internalName.replace('/', '.');
-                
-                // 过滤掉基本类型和数组
-                if (!className.startsWith("[") && !isPrimitiveType(className)) {
-                    dependencies.add(className);
-                }
-            }
-        }
-        
-        private boolean isPrimitiveType(String className) {
-            return className.equals("byte") || className.equals("short") || 
-                   className.equals("int") || className.equals("long") ||
-                   className.equals("float") || className.equals("double") ||
-                   className.equals("boolean") || className.equals("char");
-        }
-        
-        public Set<String> getDependencies() {
-            return dependencies;
-        }
-    }
 } 
\ No newline at end of file
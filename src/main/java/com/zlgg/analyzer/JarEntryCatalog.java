@@ -0,0 +1,177 @@
+package com.zlgg.analyzer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarFile;
+
+/**
+ * JAR条目目录
+ * 一次遍历JAR中央目录，按类型对条目建立索引，供各个分析阶段共享，
+ * 避免每个阶段重复枚举归档条目
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+class JarEntryCatalog {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JarEntryCatalog.class);
+    
+    /**
+     * 条目类型
+     */
+    enum EntryKind {
+        CLASS,       // .class 类文件
+        NESTED_JAR,  // 内嵌的 .jar 文件
+        FXML,        // .fxml 界面文件
+        SERVICE,     // META-INF/services/ 服务声明
+        SPRING_META, // META-INF/spring.factories 及 META-INF/spring/*.imports 自动配置声明
+        MANIFEST     // META-INF/MANIFEST.MF
+    }
+    
+    private final ArchiveReader archive;
+    private final List<ArchiveEntry> allEntries;
+    private final Map<EntryKind, List<ArchiveEntry>> entriesByKind;
+    
+    // FXML内容只解压一次，供多个阶段复用
+    private Map<String, String> fxmlContents;
+    private long fxmlBytesRead;
+    
+    private JarEntryCatalog(ArchiveReader archive, List<ArchiveEntry> allEntries, Map<EntryKind, List<ArchiveEntry>> entriesByKind) {
+        this.archive = archive;
+        this.allEntries = allEntries;
+        this.entriesByKind = entriesByKind;
+    }
+    
+    /**
+     * 遍历一次JAR条目并建立目录
+     */
+    static JarEntryCatalog scan(ArchiveReader archive) {
+        List<ArchiveEntry> allEntries = new ArrayList<>();
+        Map<EntryKind, List<ArchiveEntry>> entriesByKind = new EnumMap<>(EntryKind.class);
+        for (EntryKind kind : EntryKind.values()) {
+            entriesByKind.put(kind, new ArrayList<>());
+        }
+        
+        for (ArchiveEntry entry : archive.getEntries()) {
+            allEntries.add(entry);
+            
+            EntryKind kind = classify(entry);
+            if (kind != null) {
+                entriesByKind.get(kind).add(entry);
+            }
+        }
+        
+        logger.debug("JAR条目目录建立完成: 共 {} 个条目, {} 个类文件, {} 个内嵌JAR, {} 个FXML文件",
+                   allEntries.size(), entriesByKind.get(EntryKind.CLASS).size(),
+                   entriesByKind.get(EntryKind.NESTED_JAR).size(), entriesByKind.get(EntryKind.FXML).size());
+        
+        return new JarEntryCatalog(archive, allEntries, entriesByKind);
+    }
+    
+    /**
+     * 判断条目类型，不属于任何索引类型时返回null
+     */
+    private static EntryKind classify(ArchiveEntry entry) {
+        String name = entry.getName();
+        if (name.endsWith(".class")) {
+            return EntryKind.CLASS;
+        } else if (name.endsWith(".jar")) {
+            return EntryKind.NESTED_JAR;
+        } else if (name.endsWith(".fxml")) {
+            return EntryKind.FXML;
+        } else if (name.equals(JarFile.MANIFEST_NAME)) {
+            return EntryKind.MANIFEST;
+        } else if (name.startsWith("META-INF/services/") && !entry.isDirectory()) {
+            return EntryKind.SERVICE;
+        } else if (name.equals("META-INF/spring.factories")
+                || (name.startsWith("META-INF/spring/") && name.endsWith(".imports"))) {
+            return EntryKind.SPRING_META;
+        }
+        return null;
+    }
+    
+    /**
+     * 获取所属的归档读取器
+     */
+    ArchiveReader getArchive() {
+        return archive;
+    }
+    
+    /**
+     * 获取所有条目（保持JAR中的顺序）
+     */
+    List<ArchiveEntry> getAllEntries() {
+        return Collections.unmodifiableList(allEntries);
+    }
+    
+    /**
+     * 获取指定类型的条目（保持JAR中的顺序）
+     */
+    List<ArchiveEntry> getEntries(EntryKind kind) {
+        return Collections.unmodifiableList(entriesByKind.get(kind));
+    }
+    
+    /**
+     * 指定类型的条目数量
+     */
+    int count(EntryKind kind) {
+        return entriesByKind.get(kind).size();
+    }
+    
+    /**
+     * 是否存在指定类型的条目
+     */
+    boolean hasEntries(EntryKind kind) {
+        return !entriesByKind.get(kind).isEmpty();
+    }
+    
+    /**
+     * 获取指定前缀下的内嵌JAR
+     */
+    List<ArchiveEntry> getNestedJars(String prefix) {
+        List<ArchiveEntry> result = new ArrayList<>();
+        for (ArchiveEntry entry : entriesByKind.get(EntryKind.NESTED_JAR)) {
+            if (entry.getName().startsWith(prefix)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 获取所有FXML文件的内容（条目名 -> 文本），首次调用时解压并缓存
+     */
+    synchronized Map<String, String> getFxmlContents() {
+        if (fxmlContents == null) {
+            Map<String, String> contents = new LinkedHashMap<>();
+            for (ArchiveEntry entry : entriesByKind.get(EntryKind.FXML)) {
+                try (InputStream is = archive.open(entry)) {
+                    byte[] content = is.readAllBytes();
+                    fxmlBytesRead += content.length;
+                    contents.put(entry.getName(), new String(content, StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    logger.warn("读取FXML文件失败: {}, 错误: {}", entry.getName(), e.getMessage());
+                }
+            }
+            fxmlContents = contents;
+        }
+        return fxmlContents;
+    }
+    
+    /**
+     * 解压FXML文件读取的字节数，尚未读取时为0
+     */
+    synchronized long getFxmlBytesRead() {
+        return fxmlBytesRead;
+    }
+}
@@ -0,0 +1,76 @@
+package com.zlgg.analyzer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * 基于java.util.jar.JarFile的归档读取器
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class JarFileArchive implements ArchiveReader {
+    
+    private static final ThreadLocal<ReusableBuffer> BUFFER = ThreadLocal.withInitial(ReusableBuffer::new);
+    
+    private final JarFile jarFile;
+    private final List<JarEntry> jarEntries = new ArrayList<>();
+    private final List<ArchiveEntry> entries = new ArrayList<>();
+    
+    JarFileArchive(Path jarPath) throws IOException {
+        this.jarFile = new JarFile(jarPath.toFile());
+        Enumeration<JarEntry> enumeration = jarFile.entries();
+        while (enumeration.hasMoreElements()) {
+            JarEntry entry = enumeration.nextElement();
+            entries.add(new ArchiveEntry(jarEntries.size(), entry.getName(), entry.getSize()));
+            jarEntries.add(entry);
+        }
+    }
+    
+    @Override
+    public String getName() {
+        return jarFile.getName();
+    }
+    
+    @Override
+    public List<ArchiveEntry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+    
+    @Override
+    public ByteBuffer slice(ArchiveEntry entry) throws IOException {
+        try (InputStream is = open(entry)) {
+            long size = entry.getSize();
+            if (size < 0) {
+                return ByteBuffer.wrap(is.readAllBytes());
+            }
+            byte[] data = BUFFER.get().ensureCapacity((int) size);
+            int length = is.readNBytes(data, 0, (int) size);
+            return ByteBuffer.wrap(data, 0, length);
+        }
+    }
+    
+    @Override
+    public InputStream open(ArchiveEntry entry) throws IOException {
+        return jarFile.getInputStream(jarEntries.get(entry.getIndex()));
+    }
+    
+    @Override
+    public Manifest getManifest() throws IOException {
+        return jarFile.getManifest();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        jarFile.close();
+    }
+}
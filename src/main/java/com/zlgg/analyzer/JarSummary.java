@@ -0,0 +1,69 @@
+package com.zlgg.analyzer;
+
+import com.zlgg.model.ClassDependency;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 单个JAR的分析摘要
+ * 包含该JAR中各个类的依赖信息（保持JAR中的顺序）、这些类引用到的Java模块
+ * 以及元数据中声明的入口类，
+ * 是分析缓存中保存的最小单位
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class JarSummary {
+    
+    private final Map<String, ClassDependency> classes = new LinkedHashMap<>();
+    private final Set<String> modules = new LinkedHashSet<>();
+    private final Set<String> entryPoints = new LinkedHashSet<>();
+    
+    /**
+     * 添加类，已存在的同名类优先
+     */
+    void addClass(ClassDependency classDep) {
+        classes.putIfAbsent(classDep.getClassName(), classDep);
+    }
+    
+    void addModules(Collection<String> moduleNames) {
+        modules.addAll(moduleNames);
+    }
+    
+    /**
+     * 添加元数据中声明的入口类（服务提供者、自动配置类等）
+     */
+    void addEntryPoints(Collection<String> classNames) {
+        entryPoints.addAll(classNames);
+    }
+    
+    /**
+     * 合并另一个摘要（例如内嵌在当前JAR中的JAR）
+     */
+    void merge(JarSummary other) {
+        other.classes.values().forEach(this::addClass);
+        modules.addAll(other.modules);
+        entryPoints.addAll(other.entryPoints);
+    }
+    
+    Collection<ClassDependency> getClasses() {
+        return Collections.unmodifiableCollection(classes.values());
+    }
+    
+    Set<String> getModules() {
+        return Collections.unmodifiableSet(modules);
+    }
+    
+    Set<String> getEntryPoints() {
+        return Collections.unmodifiableSet(entryPoints);
+    }
+    
+    int getClassCount() {
+        return classes.size();
+    }
+}
@@ -0,0 +1,200 @@
+package com.zlgg.analyzer;
+
+import com.zlgg.util.CancellationToken;
+import com.zlgg.util.TaskExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.spi.ToolProvider;
+
+/**
+ * jdeps调用器
+ * 优先通过ToolProvider在当前JVM中运行jdeps，输出直接写入内存，省去启动新JVM的开销；
+ * 当前运行时不包含jdk.jdeps模块时退回到启动$JAVA_HOME/bin/jdeps进程。
+ * 分析开始时预先运行的jdeps结果多数用不上，总是使用独立进程，以便随时结束。
+ * 独立进程在取消时连同子进程一起结束；进程内的jdeps无法中途停止，取消后结果直接丢弃
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class JdepsRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JdepsRunner.class);
+    
+    private static final Optional<ToolProvider> JDEPS = ToolProvider.findFirst("jdeps");
+    
+    private JdepsRunner() {
+    }
+    
+    /**
+     * 在共享的io线程池中运行jdeps，用于确实需要jdeps结果的情况，优先在当前JVM中运行。
+     * 取消返回的Future或取消令牌时会结束jdeps进程，等待结果的join()立即抛出CancellationException；
+     * 进程内的jdeps会在后台运行完毕，结果被丢弃
+     */
+    static CompletableFuture<Set<String>> start(Path jarPath, CancellationToken cancellation) {
+        return start(jarPath, cancellation, JDEPS.isPresent());
+    }
+    
+    /**
+     * 在分析开始时预先运行jdeps，与类文件分析同时进行，结果多数情况下用不上。
+     * 总是启动独立的jdeps进程，不需要结果时可以随时结束，不会在io线程池中留下无法停止的进程内jdeps；
+     * 找不到jdeps可执行文件时返回null，由调用方在需要时再调用start
+     */
+    static CompletableFuture<Set<String>> startSpeculative(Path jarPath, CancellationToken cancellation) {
+        if (!Files.exists(jdepsExecutable())) {
+            return null;
+        }
+        return start(jarPath, cancellation, false);
+    }
+    
+    private static CompletableFuture<Set<String>> start(Path jarPath, CancellationToken cancellation,
+                                                        boolean inProcess) {
+        CompletableFuture<Set<String>> future = new CompletableFuture<>();
+        // 后台jdeps自己的令牌：分析被取消，或者分析结束后不再需要jdeps结果时都会取消
+        CancellationToken jdepsCancellation = new CancellationToken();
+        CancellationToken.Registration registration = cancellation.onCancel(() -> future.cancel(true));
+        future.whenComplete((modules, error) -> {
+            registration.close();
+            if (future.isCancelled()) {
+                jdepsCancellation.cancel();
+            }
+        });
+        if (!future.isDone()) {
+            TaskExecutors.io().run(() -> {
+                // 排队期间已经不再需要结果时不再运行
+                if (jdepsCancellation.isCancelled()) {
+                    return;
+                }
+                try {
+                    future.complete(printModuleDeps(jarPath, inProcess, jdepsCancellation));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        }
+        return future;
+    }
+    
+    /**
+     * 运行 jdeps --print-module-deps，返回JAR依赖的模块；失败或被取消时返回空集合
+     */
+    private static Set<String> printModuleDeps(Path jarPath, boolean inProcess, CancellationToken cancellation) {
+        String[] args = {"--print-module-deps", "--ignore-missing-deps", jarPath.toString()};
+        long startTime = System.currentTimeMillis();
+        try {
+            String output = inProcess ? runInProcess(JDEPS.get(), args) : runProcess(args, cancellation);
+            if (cancellation.isCancelled()) {
+                logger.debug("jdeps分析已取消");
+                return new LinkedHashSet<>();
+            }
+            if (output == null) {
+                return new LinkedHashSet<>();
+            }
+            Set<String> modules = parseModules(output);
+            logger.debug("jdeps分析完成: {}ms, {} 个模块 ({})", System.currentTimeMillis() - startTime,
+                       modules.size(), inProcess ? "进程内" : "独立进程");
+            return modules;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.debug("jdeps分析已取消");
+        } catch (Exception e) {
+            logger.warn("jdeps补充分析失败: {}", e.getMessage());
+        }
+        return new LinkedHashSet<>();
+    }
+    
+    private static String runInProcess(ToolProvider jdeps, String[] args) {
+        logger.debug("进程内执行jdeps: {}", String.join(" ", args));
+        StringWriter out = new StringWriter();
+        StringWriter err = new StringWriter();
+        int exitCode;
+        try (PrintWriter outWriter = new PrintWriter(out); PrintWriter errWriter = new PrintWriter(err)) {
+            exitCode = jdeps.run(outWriter, errWriter, args);
+        }
+        if (exitCode != 0) {
+            logger.warn("jdeps分析失败，退出码: {} {}", exitCode, err.toString().trim());
+            return null;
+        }
+        return out.toString();
+    }
+    
+    private static String runProcess(String[] args, CancellationToken cancellation) throws IOException, InterruptedException {
+        Path jdepsPath = jdepsExecutable();
+        if (!Files.exists(jdepsPath)) {
+            logger.warn("jdeps工具不存在: {}", jdepsPath);
+            return null;
+        }
+        
+        List<String> command = new ArrayList<>();
+        command.add(jdepsPath.toString());
+        command.addAll(List.of(args));
+        
+        logger.debug("执行jdeps命令: {}", String.join(" ", command));
+        
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        StringBuilder output = new StringBuilder();
+        // 进程结束后输出流关闭，阻塞的readLine随之返回
+        CancellationToken.Registration registration = cancellation.destroyOnCancel(process);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.append(line).append('\n');
+                if (Thread.currentThread().isInterrupted()) {
+                    process.destroy();
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            registration.close();
+        }
+        
+        int exitCode = process.waitFor();
+        if (cancellation.isCancelled()) {
+            return null;
+        }
+        if (exitCode != 0) {
+            logger.warn("jdeps分析失败，退出码: {}", exitCode);
+            return null;
+        }
+        return output.toString();
+    }
+    
+    private static Path jdepsExecutable() {
+        String executable = "jdeps" + (System.getProperty("os.name").toLowerCase().contains("windows") ? ".exe" : "");
+        return Paths.get(System.getProperty("java.home"), "bin", executable);
+    }
+    
+    /**
+     * jdeps输出的是逗号分隔的模块列表
+     */
+    private static Set<String> parseModules(String output) throws IOException {
+        Set<String> modules = new LinkedHashSet<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(output))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                for (String module : line.trim().split(",")) {
+                    module = module.trim();
+                    if (!module.isEmpty()) {
+                        modules.add(module);
+                    }
+                }
+            }
+        }
+        return modules;
+    }
+}
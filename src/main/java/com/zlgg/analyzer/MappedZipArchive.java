@@ -0,0 +1,298 @@
+package com.zlgg.analyzer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * 基于内存映射的ZIP归档读取器
+ * 通过NIO映射整个文件并自行解析中央目录，不为每个条目创建JarEntry对象。
+ * STORED条目直接返回映射区域的零拷贝切片，DEFLATED条目解压到线程复用的缓冲区中
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class MappedZipArchive implements ArchiveReader {
+    
+    // ZIP格式签名
+    private static final int LOCSIG = 0x04034b50;
+    private static final int CENSIG = 0x02014b50;
+    private static final int ENDSIG = 0x06054b50;
+    private static final int ZIP64_ENDSIG = 0x06064b50;
+    private static final int ZIP64_LOCSIG = 0x07064b50;
+    
+    // 各记录的固定长度
+    private static final int LOCHDR = 30;
+    private static final int CENHDR = 46;
+    private static final int ENDHDR = 22;
+    private static final int ZIP64_LOCHDR = 20;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+    
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+    
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+    private static final ThreadLocal<ReusableBuffer> BUFFER = ThreadLocal.withInitial(ReusableBuffer::new);
+    
+    private final String name;
+    private final FileChannel channel;
+    private final ByteBuffer data;
+    
+    private final List<ArchiveEntry> entries = new ArrayList<>();
+    private int[] methods = new int[64];
+    private long[] compressedSizes = new long[64];
+    private long[] localHeaderOffsets = new long[64];
+    
+    private MappedZipArchive(String name, FileChannel channel, ByteBuffer data) throws IOException {
+        this.name = name;
+        this.channel = channel;
+        this.data = data.order(ByteOrder.LITTLE_ENDIAN);
+        readCentralDirectory();
+    }
+    
+    /**
+     * 映射并打开ZIP文件，单个文件不能超过2GB
+     */
+    static MappedZipArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new ZipException("文件超过内存映射上限(2GB): " + path);
+            }
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new MappedZipArchive(path.toString(), channel, mapped);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * 在已有的缓冲区上打开ZIP归档（例如未压缩存储的内嵌JAR）
+     */
+    static MappedZipArchive wrap(String name, ByteBuffer buffer) throws IOException {
+        return new MappedZipArchive(name, null, buffer.slice());
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public List<ArchiveEntry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+    
+    @Override
+    public ByteBuffer slice(ArchiveEntry entry) throws IOException {
+        int index = entry.getIndex();
+        ByteBuffer compressed = compressedData(index);
+        
+        switch (methods[index]) {
+            case METHOD_STORED:
+                return compressed;
+            case METHOD_DEFLATED:
+                return inflate(entry, compressed);
+            default:
+                throw new ZipException("不支持的压缩方法 " + methods[index] + ": " + entry.getName());
+        }
+    }
+    
+    /**
+     * 条目是否以STORED方式存储（可直接零拷贝访问）
+     */
+    boolean isStored(ArchiveEntry entry) {
+        return methods[entry.getIndex()] == METHOD_STORED;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+    
+    /**
+     * 解析中央目录
+     */
+    private void readCentralDirectory() throws IOException {
+        int endPos = findEndOfCentralDirectory();
+        long centralSize = u32(endPos + 12);
+        long centralOffset = u32(endPos + 16);
+        int centralEnd = endPos;
+        
+        // ZIP64：条目数超过65535或偏移量超过4GB时，实际值记录在ZIP64目录结束记录中
+        int locatorPos = endPos - ZIP64_LOCHDR;
+        if (locatorPos >= 0 && data.getInt(locatorPos) == ZIP64_LOCSIG) {
+            int zip64EndPos = position(data.getLong(locatorPos + 8));
+            if (zip64EndPos + 56 <= data.limit() && data.getInt(zip64EndPos) == ZIP64_ENDSIG) {
+                centralSize = data.getLong(zip64EndPos + 40);
+                centralOffset = data.getLong(zip64EndPos + 48);
+                centralEnd = zip64EndPos;
+            }
+        }
+        
+        // 文件前可能附加了启动脚本等内容，偏移量需要按实际位置修正
+        long centralStart = centralEnd - centralSize;
+        long base = centralStart - centralOffset;
+        if (centralStart < 0 || base < 0) {
+            throw new ZipException("无效的中央目录: " + name);
+        }
+        
+        int pos = position(centralStart);
+        while (pos + CENHDR <= centralEnd) {
+            if (data.getInt(pos) != CENSIG) {
+                throw new ZipException("无效的中央目录条目: " + name + " @" + pos);
+            }
+            int method = u16(pos + 10);
+            long compressedSize = u32(pos + 20);
+            long size = u32(pos + 24);
+            int nameLength = u16(pos + 28);
+            int extraLength = u16(pos + 30);
+            int commentLength = u16(pos + 32);
+            long localHeaderOffset = u32(pos + 42);
+            
+            byte[] nameBytes = new byte[nameLength];
+            data.get(pos + CENHDR, nameBytes);
+            String entryName = new String(nameBytes, StandardCharsets.UTF_8);
+            
+            // ZIP64扩展字段，只包含原值为0xFFFFFFFF的字段
+            if (size == ZIP64_MAGIC || compressedSize == ZIP64_MAGIC || localHeaderOffset == ZIP64_MAGIC) {
+                int extraPos = pos + CENHDR + nameLength;
+                int extraEnd = extraPos + extraLength;
+                while (extraPos + 4 <= extraEnd) {
+                    int tag = u16(extraPos);
+                    int blockSize = u16(extraPos + 2);
+                    if (tag == 0x0001) {
+                        int fieldPos = extraPos + 4;
+                        if (size == ZIP64_MAGIC) {
+                            size = data.getLong(fieldPos);
+                            fieldPos += 8;
+                        }
+                        if (compressedSize == ZIP64_MAGIC) {
+                            compressedSize = data.getLong(fieldPos);
+                            fieldPos += 8;
+                        }
+                        if (localHeaderOffset == ZIP64_MAGIC) {
+                            localHeaderOffset = data.getLong(fieldPos);
+                        }
+                        break;
+                    }
+                    extraPos += 4 + blockSize;
+                }
+            }
+            
+            addEntry(entryName, method, compressedSize, size, base + localHeaderOffset);
+            pos += CENHDR + nameLength + extraLength + commentLength;
+        }
+    }
+    
+    private void addEntry(String entryName, int method, long compressedSize, long size, long localHeaderOffset) {
+        int index = entries.size();
+        if (index == methods.length) {
+            int capacity = index * 2;
+            methods = Arrays.copyOf(methods, capacity);
+            compressedSizes = Arrays.copyOf(compressedSizes, capacity);
+            localHeaderOffsets = Arrays.copyOf(localHeaderOffsets, capacity);
+        }
+        methods[index] = method;
+        compressedSizes[index] = compressedSize;
+        localHeaderOffsets[index] = localHeaderOffset;
+        entries.add(new ArchiveEntry(index, entryName, size));
+    }
+    
+    /**
+     * 从文件末尾向前查找中央目录结束记录
+     */
+    private int findEndOfCentralDirectory() throws IOException {
+        int limit = data.limit();
+        int minPos = Math.max(0, limit - ENDHDR - MAX_COMMENT_LENGTH);
+        for (int pos = limit - ENDHDR; pos >= minPos; pos--) {
+            if (data.getInt(pos) == ENDSIG && pos + ENDHDR + u16(pos + 20) == limit) {
+                return pos;
+            }
+        }
+        throw new ZipException("找不到中央目录结束记录，不是有效的ZIP文件: " + name);
+    }
+    
+    /**
+     * 定位条目的压缩数据（跳过本地文件头）
+     */
+    private ByteBuffer compressedData(int index) throws IOException {
+        int localPos = position(localHeaderOffsets[index]);
+        if (localPos + LOCHDR > data.limit() || data.getInt(localPos) != LOCSIG) {
+            throw new ZipException("无效的本地文件头: " + entries.get(index).getName());
+        }
+        int dataPos = localPos + LOCHDR + u16(localPos + 26) + u16(localPos + 28);
+        long length = compressedSizes[index];
+        if (dataPos + length > data.limit()) {
+            throw new ZipException("条目数据超出文件范围: " + entries.get(index).getName());
+        }
+        return data.slice(dataPos, (int) length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    /**
+     * 将DEFLATED数据解压到当前线程的复用缓冲区
+     */
+    private ByteBuffer inflate(ArchiveEntry entry, ByteBuffer compressed) throws IOException {
+        long size = entry.getSize();
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new ZipException("条目过大，无法在内存中解压: " + entry.getName());
+        }
+        
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(compressed);
+        
+        byte[] output = BUFFER.get().ensureCapacity((int) size);
+        int length = 0;
+        try {
+            while (length < size) {
+                int count = inflater.inflate(output, length, (int) size - length);
+                if (count == 0) {
+                    if (inflater.finished() || inflater.needsDictionary() || inflater.needsInput()) {
+                        break;
+                    }
+                }
+                length += count;
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException("解压失败: " + entry.getName() + ", " + e.getMessage());
+        }
+        
+        if (length != size) {
+            throw new ZipException("解压后大小不一致: " + entry.getName() + " (" + length + "/" + size + ")");
+        }
+        return ByteBuffer.wrap(output, 0, length);
+    }
+    
+    private int position(long offset) throws ZipException {
+        if (offset < 0 || offset > data.limit()) {
+            throw new ZipException("无效的偏移量 " + offset + ": " + name);
+        }
+        return (int) offset;
+    }
+    
+    private int u16(int pos) {
+        return data.getShort(pos) & 0xFFFF;
+    }
+    
+    private long u32(int pos) {
+        return data.getInt(pos) & 0xFFFFFFFFL;
+    }
+}
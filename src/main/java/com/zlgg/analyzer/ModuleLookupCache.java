@@ -0,0 +1,103 @@
+package com.zlgg.analyzer;
+
+import com.zlgg.model.SymbolTable;
+import com.zlgg.util.ModuleMapper;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 类到模块的查找缓存
+ * 同一个依赖（java.lang.String、java.util.List……）会在几乎每个类中出现，
+ * 依赖名称登记到符号表后，以符号编号为键记住ModuleMapper的查找结果，每个名称只查找一次。
+ * 符号编号是连续分配的，缓存直接按编号存放在分块数组中，命中时不计算哈希、不比较字符串，也不加锁；
+ * 只缓存编号小于容量上限的符号，超出部分直接查询ModuleMapper，内存占用有上界。
+ * 缓存与符号表绑定，可以被多个分析线程同时使用，界面中浏览依赖图时也用它查找依赖所属的模块
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+public final class ModuleLookupCache {
+    
+    static final int DEFAULT_CAPACITY = 1 << 20;
+    
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    
+    // 已查找过但不属于任何Java模块的类（第三方类）
+    private static final String NO_MODULE = "";
+    
+    private final ModuleMapper moduleMapper;
+    private final SymbolTable symbols;
+    private final int capacity;
+    // 块在首次使用时分配；并发写入同一位置时写入的是相同的结果，不需要同步
+    private final AtomicReferenceArray<String[]> chunks;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    public ModuleLookupCache(ModuleMapper moduleMapper, SymbolTable symbols) {
+        this(moduleMapper, symbols, DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * @param capacity 缓存的符号数量上限
+     */
+    ModuleLookupCache(ModuleMapper moduleMapper, SymbolTable symbols, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("查找缓存容量必须大于0: " + capacity);
+        }
+        this.moduleMapper = moduleMapper;
+        this.symbols = symbols;
+        this.capacity = capacity;
+        this.chunks = new AtomicReferenceArray<>((capacity + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+    }
+    
+    /**
+     * 获取符号对应的Java模块，不属于任何模块时返回null
+     */
+    public String moduleFor(int symbol) {
+        if (symbol >= capacity) {
+            misses.increment();
+            return moduleMapper.getModuleForClass(symbols.name(symbol));
+        }
+        int chunkIndex = symbol >>> CHUNK_BITS;
+        String[] chunk = chunks.get(chunkIndex);
+        if (chunk == null) {
+            chunk = new String[CHUNK_SIZE];
+            if (!chunks.compareAndSet(chunkIndex, null, chunk)) {
+                chunk = chunks.get(chunkIndex);
+            }
+        }
+        String cached = chunk[symbol & CHUNK_MASK];
+        if (cached != null) {
+            hits.increment();
+            return cached.isEmpty() ? null : cached;
+        }
+        misses.increment();
+        String module = moduleMapper.getModuleForClass(symbols.name(symbol));
+        chunk[symbol & CHUNK_MASK] = module != null ? module : NO_MODULE;
+        return module;
+    }
+    
+    SymbolTable getSymbols() {
+        return symbols;
+    }
+    
+    long getHitCount() {
+        return hits.sum();
+    }
+    
+    long getMissCount() {
+        return misses.sum();
+    }
+    
+    /**
+     * 命中率（0-1），尚未查询时为0
+     */
+    double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+}
@@ -0,0 +1,221 @@
+package com.zlgg.analyzer;
+
+import com.zlgg.model.ClassDependency;
+import com.zlgg.model.SymbolTable;
+import com.zlgg.util.CancellationToken;
+import com.zlgg.util.TaskExecutors;
+import com.zlgg.util.TaskPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 内嵌JAR分析器
+ * 在内存中直接读取Spring Boot胖JAR中BOOT-INF/lib/下的依赖JAR（不解压到磁盘），
+ * 多个内嵌JAR在共享的analysis线程池中并行分析（同时提交的数量不超过并行度），内嵌JAR中再嵌套的JAR会递归处理。
+ * 启用分析缓存时，内容相同的JAR直接复用缓存中的摘要。
+ * 每个内嵌JAR开始前检查取消令牌，取消后剩余的内嵌JAR不再分析
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+class NestedJarAnalyzer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NestedJarAnalyzer.class);
+    
+    // 内嵌JAR的最大递归深度，防止异常归档导致无限递归
+    private static final int MAX_DEPTH = 3;
+    
+    private final int parallelism;
+    private final Function<Set<String>, ClassAnalysisEngine.ClassFileParser> parserFactory;
+    private final SymbolTable symbols;
+    private final AnalysisCache cache;
+    private final PhaseRecorder metrics;
+    private final CancellationToken cancellation;
+    
+    /**
+     * @param parallelism 同时分析的内嵌JAR数量
+     * @param parserFactory 根据模块收集集合创建类文件解析函数，解析函数必须是线程安全的
+     * @param symbols 符号表，从缓存读取的依赖登记到这里
+     * @param cache 分析缓存，为null时不使用缓存
+     * @param metrics 读取的内嵌JAR、条目和类计入该记录器的当前阶段
+     * @param cancellation 取消令牌
+     */
+    NestedJarAnalyzer(int parallelism,
+                      Function<Set<String>, ClassAnalysisEngine.ClassFileParser> parserFactory,
+                      SymbolTable symbols,
+                      AnalysisCache cache,
+                      PhaseRecorder metrics,
+                      CancellationToken cancellation) {
+        this.parallelism = parallelism;
+        this.parserFactory = parserFactory;
+        this.symbols = symbols;
+        this.cache = cache;
+        this.metrics = metrics;
+        this.cancellation = cancellation;
+    }
+    
+    /**
+     * 分析内嵌JAR，结果按JAR顺序合并到classDependencies
+     * 外层JAR中已存在的同名类优先，不会被依赖JAR中的类覆盖
+     *
+     * @param archive 外层归档
+     * @param nestedJars 内嵌JAR条目
+     * @param classDependencies 类依赖结果
+     * @param requiredModules 必需模块结果
+     * @param entryPoints 内嵌JAR元数据中声明的入口类
+     * @param progressCallback 进度回调 (0.0-1.0)
+     * @return 成功分析的内嵌JAR数量
+     * @throws CancellationException 分析过程中被取消
+     */
+    int analyze(ArchiveReader archive,
+                List<ArchiveEntry> nestedJars,
+                Map<String, ClassDependency> classDependencies,
+                Set<String> requiredModules,
+                Set<String> entryPoints,
+                Consumer<Double> progressCallback) {
+        
+        int totalJars = nestedJars.size();
+        if (totalJars == 0) {
+            progressCallback.accept(1.0);
+            return 0;
+        }
+        logger.debug("开始分析 {} 个内嵌JAR，并行度: {}", totalJars, parallelism);
+        
+        TaskPool pool = TaskExecutors.analysis();
+        int window = Math.max(1, parallelism);
+        Deque<CompletableFuture<JarSummary>> inFlight = new ArrayDeque<>(window);
+        try {
+            int nextJar = 0;
+            while (nextJar < totalJars && inFlight.size() < window) {
+                inFlight.add(submitNestedJar(pool, archive, nestedJars.get(nextJar++)));
+            }
+            
+            // 按提交顺序合并，保证结果与JAR中的顺序一致；合并一个再提交下一个
+            int analyzedJars = 0;
+            int nestedClasses = 0;
+            for (int i = 0; i < totalJars; i++) {
+                JarSummary summary = inFlight.poll().join();
+                cancellation.throwIfCancelled();
+                if (nextJar < totalJars) {
+                    inFlight.add(submitNestedJar(pool, archive, nestedJars.get(nextJar++)));
+                }
+                if (summary != null) {
+                    for (ClassDependency classDep : summary.getClasses()) {
+                        if (classDependencies.putIfAbsent(classDep.getClassName(), classDep) == null) {
+                            nestedClasses++;
+                        }
+                    }
+                    requiredModules.addAll(summary.getModules());
+                    entryPoints.addAll(summary.getEntryPoints());
+                    analyzedJars++;
+                }
+                progressCallback.accept((double) (i + 1) / totalJars);
+            }
+            
+            logger.debug("内嵌JAR分析完成: {}/{} 个JAR, 新增 {} 个类", analyzedJars, totalJars, nestedClasses);
+            return analyzedJars;
+        } finally {
+            // 异常结束时等待已提交的内嵌JAR结束，调用方随后会关闭归档
+            for (CompletableFuture<JarSummary> task : inFlight) {
+                task.exceptionally(error -> null).join();
+            }
+        }
+    }
+    
+    private CompletableFuture<JarSummary> submitNestedJar(TaskPool pool, ArchiveReader archive, ArchiveEntry entry) {
+        return pool.supply(() -> {
+            long allocated = metrics.workerStarted();
+            try {
+                return analyzeNestedJar(archive, entry, 1);
+            } finally {
+                metrics.workerFinished(allocated);
+            }
+        });
+    }
+    
+    /**
+     * 分析单个内嵌JAR（包括其中再嵌套的JAR），失败时返回null
+     */
+    private JarSummary analyzeNestedJar(ArchiveReader parent, ArchiveEntry entry, int depth) {
+        if (cancellation.isCancelled()) {
+            return null;
+        }
+        try {
+            ByteBuffer data = readNested(parent, entry);
+            metrics.addBytesRead(data.remaining());
+            metrics.addEntriesVisited(1);
+            
+            String cacheKey = null;
+            if (cache != null) {
+                cacheKey = AnalysisCache.sha256(data);
+                JarSummary cached = cache.load(cacheKey, symbols);
+                if (cached != null) {
+                    logger.debug("内嵌JAR {} 命中分析缓存，共 {} 个类", entry.getName(), cached.getClassCount());
+                    return cached;
+                }
+            }
+            
+            JarSummary summary = new JarSummary();
+            try (ArchiveReader nested = MappedZipArchive.wrap(parent.getName() + "!/" + entry.getName(), data)) {
+                JarEntryCatalog catalog = JarEntryCatalog.scan(nested);
+                metrics.addEntriesVisited(catalog.getAllEntries().size() - catalog.count(JarEntryCatalog.EntryKind.CLASS));
+                
+                // 已在工作线程中，内嵌JAR内部的类文件顺序分析即可
+                Map<String, ClassDependency> classes = new LinkedHashMap<>();
+                Set<String> modules = ConcurrentHashMap.newKeySet();
+                ClassAnalysisEngine engine = new ClassAnalysisEngine(1, Integer.MAX_VALUE, metrics, cancellation);
+                engine.analyze(nested, catalog.getEntries(JarEntryCatalog.EntryKind.CLASS),
+                               parserFactory.apply(modules), classes, progress -> { });
+                classes.values().forEach(summary::addClass);
+                summary.addModules(modules);
+                summary.addEntryPoints(EntryPointScanner.scan(catalog));
+                
+                if (depth < MAX_DEPTH) {
+                    for (ArchiveEntry child : catalog.getEntries(JarEntryCatalog.EntryKind.NESTED_JAR)) {
+                        JarSummary childSummary = analyzeNestedJar(nested, child, depth + 1);
+                        if (childSummary != null) {
+                            summary.merge(childSummary);
+                        }
+                    }
+                }
+            }
+            
+            if (cacheKey != null) {
+                cache.store(cacheKey, summary);
+            }
+            logger.debug("内嵌JAR {} 分析完成，共 {} 个类", entry.getName(), summary.getClassCount());
+            return summary;
+        } catch (CancellationException e) {
+            return null;
+        } catch (Exception e) {
+            logger.warn("分析内嵌JAR失败: {}, 错误: {}", entry.getName(), e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 在内存中读取内嵌JAR的内容
+     * Spring Boot要求BOOT-INF/lib/下的JAR以STORED方式存储，此时直接使用映射区域的切片；
+     * 其他情况把内容读入独立的字节数组（slice返回的线程复用缓冲区不能长期持有）
+     */
+    private ByteBuffer readNested(ArchiveReader parent, ArchiveEntry entry) throws IOException {
+        if (parent instanceof MappedZipArchive && ((MappedZipArchive) parent).isStored(entry)) {
+            return parent.slice(entry);
+        }
+        return ByteBuffer.wrap(parent.readBytes(entry));
+    }
+}
@@ -0,0 +1,162 @@
+package com.zlgg.analyzer;
+
+import com.zlgg.model.AnalysisMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 分阶段指标记录器
+ * 分析线程用begin/end标记当前阶段，各阶段（包括工作线程）把读取的字节、访问的条目和解析的类
+ * 累加到当前阶段上；同一阶段可以分多段执行，指标会累加。
+ * JDK 17没有整个JVM的内存分配计数，分配量按线程统计：分析线程取阶段前后的差值，
+ * 工作线程在每个任务前后取差值后汇总，因此同时进行的其他分析不会计入。
+ * 每段结束时同时提交一个JFR事件（AnalysisPhaseEvent）
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class PhaseRecorder {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PhaseRecorder.class);
+    
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+    
+    private final String jarName;
+    private final Map<AnalysisMetrics.Phase, long[]> totals = new EnumMap<>(AnalysisMetrics.Phase.class);
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder entriesVisited = new LongAdder();
+    private final LongAdder classesParsed = new LongAdder();
+    private final LongAdder workerAllocatedBytes = new LongAdder();
+    
+    private AnalysisMetrics.Phase current;
+    private Thread owner;
+    private long startNanos;
+    private long startAllocatedBytes;
+    private AnalysisPhaseEvent event;
+    
+    /**
+     * @param jarName JAR名称，记录到JFR事件中
+     */
+    PhaseRecorder(String jarName) {
+        this.jarName = jarName;
+    }
+    
+    /**
+     * 开始一个阶段，只能在分析线程中调用
+     */
+    void begin(AnalysisMetrics.Phase phase) {
+        if (current != null) {
+            throw new IllegalStateException("阶段 " + current + " 尚未结束");
+        }
+        current = phase;
+        owner = Thread.currentThread();
+        bytesRead.reset();
+        entriesVisited.reset();
+        classesParsed.reset();
+        workerAllocatedBytes.reset();
+        startAllocatedBytes = currentThreadAllocatedBytes();
+        event = new AnalysisPhaseEvent();
+        event.begin();
+        startNanos = System.nanoTime();
+    }
+    
+    /**
+     * 结束当前阶段，把本段的指标累加到阶段上
+     *
+     * @param moduleCount 阶段结束时已确定的模块数量，记录到JFR事件中
+     */
+    void end(int moduleCount) {
+        long elapsed = System.nanoTime() - startNanos;
+        event.end();
+        long allocated = startAllocatedBytes < 0 ? -1
+            : currentThreadAllocatedBytes() - startAllocatedBytes + workerAllocatedBytes.sum();
+        long[] total = totals.computeIfAbsent(current, phase -> new long[5]);
+        total[0] += elapsed;
+        total[1] += bytesRead.sum();
+        total[2] += entriesVisited.sum();
+        total[3] += classesParsed.sum();
+        total[4] = allocated < 0 ? -1 : total[4] + allocated;
+        
+        if (event.shouldCommit()) {
+            event.jarName = jarName;
+            event.phase = current.name();
+            event.bytesRead = bytesRead.sum();
+            event.entriesVisited = entriesVisited.sum();
+            event.classesParsed = classesParsed.sum();
+            event.moduleCount = moduleCount;
+            event.commit();
+        }
+        event = null;
+        current = null;
+        owner = null;
+    }
+    
+    void addBytesRead(long bytes) {
+        bytesRead.add(bytes);
+    }
+    
+    void addEntriesVisited(long entries) {
+        entriesVisited.add(entries);
+    }
+    
+    /**
+     * 记录一个已解析的类文件
+     */
+    void classParsed() {
+        classesParsed.increment();
+    }
+    
+    /**
+     * 工作线程开始一个任务，返回当前线程已分配的字节数，交给workerFinished
+     */
+    long workerStarted() {
+        return currentThreadAllocatedBytes();
+    }
+    
+    /**
+     * 工作线程完成一个任务，累加任务期间的分配量。
+     * 任务也可能在等待结果的分析线程中直接执行，这部分已经包含在分析线程的差值中，不重复计入
+     */
+    void workerFinished(long startAllocated) {
+        if (startAllocated >= 0 && Thread.currentThread() != owner) {
+            workerAllocatedBytes.add(currentThreadAllocatedBytes() - startAllocated);
+        }
+    }
+    
+    /**
+     * 生成各阶段的指标
+     */
+    AnalysisMetrics toMetrics() {
+        AnalysisMetrics.Builder builder = AnalysisMetrics.builder();
+        totals.forEach((phase, total) ->
+            builder.phase(phase, new AnalysisMetrics.PhaseMetrics(total[0], total[1], total[2], total[3], total[4])));
+        return builder.build();
+    }
+    
+    /**
+     * 当前线程累计分配的字节数，JVM不支持时返回-1
+     */
+    private static long currentThreadAllocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+    
+    private static com.sun.management.ThreadMXBean threadBean() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+                if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                    return threads;
+                }
+            }
+        } catch (RuntimeException | LinkageError e) {
+            logger.debug("无法获取线程内存分配统计: {}", e.getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,144 @@
+package com.zlgg.analyzer;
+
+import com.zlgg.model.DependencyGraph;
+import com.zlgg.model.SymbolTable;
+import com.zlgg.util.ModuleMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 可达性分析器
+ * 从入口类出发遍历类依赖图，只根据实际可达的类计算所需模块，
+ * 捆绑在依赖库中但从未被调用到的代码不会再引入额外的模块。
+ * 遍历直接在依赖图的CSR邻接数组上进行，过程中不做字符串哈希
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class ReachabilityAnalyzer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReachabilityAnalyzer.class);
+    
+    /**
+     * 可达性分析结果
+     */
+    static final class Result {
+        private final int totalClasses;
+        private final int reachableClasses;
+        private final Set<String> modules;
+        
+        private Result(int totalClasses, int reachableClasses, Set<String> modules) {
+            this.totalClasses = totalClasses;
+            this.reachableClasses = reachableClasses;
+            this.modules = modules;
+        }
+        
+        int getTotalClasses() {
+            return totalClasses;
+        }
+        
+        int getReachableClasses() {
+            return reachableClasses;
+        }
+        
+        /**
+         * 可达类引用到的Java模块
+         */
+        Set<String> getModules() {
+            return modules;
+        }
+    }
+    
+    private final ModuleMapper moduleMapper;
+    
+    ReachabilityAnalyzer(ModuleMapper moduleMapper) {
+        this.moduleMapper = moduleMapper;
+    }
+    
+    /**
+     * 从根出发计算可达的类及其所需模块
+     *
+     * @param graph 类依赖图
+     * @param roots 根类名；以".*"结尾时表示该包（含子包）下的所有类
+     */
+    Result analyze(DependencyGraph graph, Collection<String> roots) {
+        int classCount = graph.getClassCount();
+        
+        // 广度优先遍历JAR中的类，依赖中的外部类（如JDK类）按符号编号单独记录
+        BitSet visited = new BitSet(classCount);
+        BitSet externalSymbols = new BitSet();
+        int[] queue = new int[classCount];
+        int head = 0;
+        int tail = 0;
+        for (int root : resolveRoots(graph, roots)) {
+            if (!visited.get(root)) {
+                visited.set(root);
+                queue[tail++] = root;
+            }
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            int dependencyCount = graph.getDependencyCount(node);
+            for (int k = 0; k < dependencyCount; k++) {
+                int symbol = graph.getDependency(node, k);
+                int target = graph.classIndexOfSymbol(symbol);
+                if (target < 0) {
+                    externalSymbols.set(symbol);
+                } else if (!visited.get(target)) {
+                    visited.set(target);
+                    queue[tail++] = target;
+                }
+            }
+        }
+        
+        // 只根据可达节点计算模块：JAR中的类已在分析时映射过，外部类每个名称只映射一次
+        Set<String> modules = new LinkedHashSet<>();
+        for (int node = visited.nextSetBit(0); node >= 0; node = visited.nextSetBit(node + 1)) {
+            String module = graph.getJavaModule(node);
+            if (module != null) {
+                modules.add(module);
+            }
+        }
+        SymbolTable symbols = graph.getSymbols();
+        for (int symbol = externalSymbols.nextSetBit(0); symbol >= 0; symbol = externalSymbols.nextSetBit(symbol + 1)) {
+            String module = moduleMapper.getModuleForClass(symbols.name(symbol));
+            if (module != null) {
+                modules.add(module);
+            }
+        }
+        
+        logger.debug("可达性分析: {} 个类, {} 条边, 可达 {}/{} 个类, {} 个外部类",
+                   classCount, graph.getEdgeCount(), tail, classCount, externalSymbols.cardinality());
+        return new Result(classCount, tail, modules);
+    }
+    
+    /**
+     * 把根类名解析为类节点下标，不存在的根只记录日志
+     */
+    private Set<Integer> resolveRoots(DependencyGraph graph, Collection<String> roots) {
+        Set<Integer> resolved = new LinkedHashSet<>();
+        for (String root : roots) {
+            if (root.endsWith(".*")) {
+                String prefix = root.substring(0, root.length() - 1);
+                for (int i = 0; i < graph.getClassCount(); i++) {
+                    if (graph.getClassName(i).startsWith(prefix)) {
+                        resolved.add(i);
+                    }
+                }
+            } else {
+                int index = graph.indexOf(root);
+                if (index >= 0) {
+                    resolved.add(index);
+                } else {
+                    logger.debug("可达性分析的根类不在JAR中: {}", root);
+                }
+            }
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,32 @@
+package com.zlgg.analyzer;
+
+/**
+ * 可复用的字节缓冲区
+ * 配合ThreadLocal使用，避免每个类文件都分配新的字节数组
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class ReusableBuffer {
+    
+    private static final int INITIAL_CAPACITY = 16 * 1024;
+    
+    private byte[] data = new byte[INITIAL_CAPACITY];
+    
+    /**
+     * 获取容量至少为minCapacity的数组，原有内容不保证保留
+     */
+    byte[] ensureCapacity(int minCapacity) {
+        if (data.length < minCapacity) {
+            data = new byte[Math.max(minCapacity, data.length * 2)];
+        }
+        return data;
+    }
+    
+    /**
+     * 获取当前数组
+     */
+    byte[] array() {
+        return data;
+    }
+}
@@ -0,0 +1,32 @@
+package com.zlgg.builder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR事件：JRE构建的一个阶段（prepare、validate、jlink、postProcess）
+ * 阶段失败时同样提交，succeeded为false
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+@Name("com.zlgg.BuildStage")
+@Label("JRE构建阶段")
+@Category({"JREGenerate", "构建"})
+@Description("JREBuilder的一个构建阶段")
+class BuildStageEvent extends jdk.jfr.Event {
+    
+    @Label("JAR")
+    String jarName;
+    
+    @Label("阶段")
+    String stage;
+    
+    @Label("模块数量")
+    int moduleCount;
+    
+    @Label("成功")
+    boolean succeeded;
+}
@@ -2,20 +2,35 @@ package com.zlgg.builder;
 
 import com.zlgg.model.AnalysisResult;
 import com.zlgg.model.BuildConfiguration;
+import com.zlgg.util.CancellationToken;
 import com.zlgg.util.LogManager;
+import com.zlgg.util.TaskExecutors;
+import com.zlgg.util.TaskPool;
+import com.zlgg.util.ProgressReporter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
+import java.util.spi.ToolProvider;
 import java.util.stream.Collectors;
 import java.util.stream.Collectors;
 
@@ -30,6 +45,13 @@ public class JREBuilder {
     
     private static final Logger logger = LoggerFactory.getLogger(JREBuilder.class);
     
+    private static final Optional<ToolProvider> JLINK = ToolProvider.findFirst("jlink");
+    
+    // 各构建阶段在整体进度中所占的比例，后处理占剩余部分
+    private static final double PREPARE_WEIGHT = 0.1;
+    private static final double VALIDATE_WEIGHT = 0.2;
+    private static final double JLINK_WEIGHT = 0.6;
+    
     // 实际的JRE输出路径（用户选择路径下的library子目录）
     private Path actualOutputPath;
     
@@ -44,38 +66,124 @@ public class JREBuilder {
     public void buildJRE(AnalysisResult analysisResult, 
                         BuildConfiguration config, 
                         Consumer<Double> progressCallback) throws Exception {
+        buildJRE(analysisResult, config, progressCallback, CancellationToken.none());
+    }
+    
+    /**
+     * 构建自定义JRE，可以通过取消令牌中途停止
+     * 取消时立即结束jlink进程及其子进程，并删除未完成的library目录；
+     * 进程内运行的jlink无法中途停止，取消在jlink返回后生效
+     * 
+     * @param analysisResult 分析结果
+     * @param config 构建配置
+     * @param progressCallback 进度回调
+     * @param cancellation 取消令牌
+     * @throws CancellationException 构建被取消
+     * @throws Exception 构建异常
+     */
+    public void buildJRE(AnalysisResult analysisResult, 
+                        BuildConfiguration config, 
+                        Consumer<Double> progressCallback,
+                        CancellationToken cancellation) throws Exception {
         
         logger.info("开始构建自定义JRE");
         logger.info("用户选择目录: {}", config.getOutputPath());
         logger.info("必需模块: {}", analysisResult.getRequiredModules());
         
-        progressCallback.accept(0.0);
+        ProgressReporter progress = ProgressReporter.of(progressCallback, 100.0);
+        // 构建器会被重复使用，取消时只能清理本次构建的输出目录
+        actualOutputPath = null;
+        
+        String jarName = analysisResult.getJarInfo() != null && analysisResult.getJarInfo().getJarPath() != null
+            ? analysisResult.getJarInfo().getJarPath().getFileName().toString() : null;
+        int requiredModuleCount = analysisResult.getRequiredModules().size();
         
         try {
-            // 第一阶段：准备构建环境 (0-10%)
-            prepareEnvironment(config);
-            progressCallback.accept(10.0);
+            // 第一阶段：准备构建环境
+            cancellation.throwIfCancelled();
+            runStage("prepare", jarName, requiredModuleCount, () -> {
+                prepareEnvironment(config);
+                return null;
+            });
+            progress.child(PREPARE_WEIGHT).complete();
+            cancellation.throwIfCancelled();
             
-            // 第二阶段：验证依赖模块 (10-30%)
-            List<String> validatedModules = validateModules(analysisResult, config);
-            progressCallback.accept(30.0);
+            // 第二阶段：验证依赖模块
+            List<String> validatedModules = runStage("validate", jarName, requiredModuleCount,
+                                                     () -> validateModules(analysisResult, config));
+            progress.child(VALIDATE_WEIGHT).complete();
+            cancellation.throwIfCancelled();
             
-            // 第三阶段：执行jlink构建 (30-90%)
-            executeJlink(validatedModules, config, 
-                        progress -> progressCallback.accept(30.0 + progress * 0.6));
+            // 第三阶段：执行jlink构建（jlink进度为0-100）
+            ProgressReporter jlinkProgress = progress.child(JLINK_WEIGHT);
+            runStage("jlink", jarName, validatedModules.size(), () -> {
+                executeJlink(validatedModules, config, 
+                            percent -> jlinkProgress.update(percent / 100.0), cancellation);
+                return null;
+            });
+            jlinkProgress.complete();
+            cancellation.throwIfCancelled();
             
-            // 第四阶段：后处理 (90-100%)
-            postProcess(config);
-            progressCallback.accept(100.0);
+            // 第四阶段：后处理
+            runStage("postProcess", jarName, validatedModules.size(), () -> {
+                postProcess(config);
+                return null;
+            });
+            progress.complete();
             
             logger.info("自定义JRE构建完成");
             
+        } catch (CancellationException e) {
+            logger.info("JRE构建已取消");
+            deletePartialOutput();
+            throw e;
         } catch (Exception e) {
             logger.error("JRE构建失败", e);
             throw new RuntimeException("JRE构建失败: " + e.getMessage(), e);
         }
     }
     
+    @FunctionalInterface
+    private interface Stage<T> {
+        T run() throws Exception;
+    }
+    
+    /**
+     * 执行一个构建阶段，并提交对应的JFR事件（失败的阶段同样提交）
+     */
+    private static <T> T runStage(String stage, String jarName, int moduleCount, Stage<T> action) throws Exception {
+        BuildStageEvent event = new BuildStageEvent();
+        event.begin();
+        try {
+            T result = action.run();
+            event.succeeded = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.stage = stage;
+                event.jarName = jarName;
+                event.moduleCount = moduleCount;
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * 删除取消时未完成的library目录
+     */
+    private void deletePartialOutput() {
+        if (actualOutputPath == null) {
+            return;
+        }
+        try {
+            deleteDirectoryRecursively(actualOutputPath);
+            LogManager.logInfo("已删除未完成的JRE目录: " + actualOutputPath);
+        } catch (IOException e) {
+            LogManager.logWarning("无法删除未完成的JRE目录: " + actualOutputPath + ", " + e.getMessage());
+        }
+    }
+    
     /**
      * 准备构建环境
      */
@@ -117,10 +225,13 @@ public class JREBuilder {
         LogManager.logInfo("Java环境: " + javaHome);
         
         Path jlinkPath = Paths.get(javaHome, "bin", "jlink" + getExecutableSuffix());
-        if (!Files.exists(jlinkPath)) {
+        if (config.isJlinkInProcess() && JLINK.isPresent()) {
+            LogManager.logInfo("✓ jlink工具检查通过（进程内执行）");
+        } else if (!Files.exists(jlinkPath)) {
             throw new RuntimeException("找不到jlink工具，请确保使用JDK而不是JRE: " + jlinkPath);
+        } else {
+            LogManager.logInfo("✓ jlink工具检查通过");
         }
-        LogManager.logInfo("✓ jlink工具检查通过");
         
         // 检查系统模块
         Path jmodsPath = Paths.get(javaHome, "jmods");
@@ -227,75 +338,57 @@ public class JREBuilder {
      */
     private void executeJlink(List<String> modules, 
                              BuildConfiguration config,
-                             Consumer<Double> progressCallback) throws Exception {
+                             Consumer<Double> progressCallback,
+                             CancellationToken cancellation) throws Exception {
         
         LogManager.logInfo("⚙️ 执行jlink构建，模块数量: " + modules.size());
         
         List<String> command = buildJlinkCommand(modules, config);
         logger.debug("jlink命令: {}", String.join(" ", command));
         
-        // 执行命令
-        ProcessBuilder processBuilder = new ProcessBuilder(command);
-        processBuilder.directory(new File(System.getProperty("user.dir")));
+        // 模块列表、jlink参数和JDK都相同时直接复用缓存的镜像
+        JreBuildCache cache = config.getJreCacheDirectory() != null ? new JreBuildCache(config.getJreCacheDirectory()) : null;
+        String cacheKey = cache != null ? JreBuildCache.key(command.subList(1, command.size())) : null;
+        if (cache != null && cache.materialize(cacheKey, actualOutputPath)) {
+            progressCallback.accept(100.0);
+            LogManager.logStepComplete("命中JRE构建缓存，跳过jlink");
+            return;
+        }
         
-        Process process = processBuilder.start();
+        boolean inProcess = config.isJlinkInProcess() && JLINK.isPresent();
+        if (config.isJlinkInProcess() && !inProcess) {
+            LogManager.logWarning("当前运行时不包含jlink工具模块，改为启动jlink进程");
+        }
         
         // 收集标准输出和错误输出
         StringBuilder output = new StringBuilder();
         StringBuilder errorOutput = new StringBuilder();
-        
-        // 读取标准输出
-        Thread outputThread = new Thread(() -> {
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(process.getInputStream(), "UTF-8"))) {
-                
-                String line;
-                int lineCount = 0;
-                
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
-                    logger.debug("jlink输出: {}", line);
-                    lineCount++;
-                    
-                    // 模拟进度更新
-                    if (lineCount % 10 == 0) {
-                        double progress = Math.min(0.9, lineCount / 100.0);
-                        progressCallback.accept(progress);
-                    }
-                }
-            } catch (IOException e) {
-                logger.error("读取jlink输出失败", e);
+        int exitCode;
+        
+        try (JlinkProgressTracker tracker = new JlinkProgressTracker(modules.size(), config, progressCallback)) {
+            Consumer<String> outputHandler = line -> {
+                output.append(line).append("\n");
+                logger.debug("jlink输出: {}", line);
+                tracker.onOutputLine(line);
+            };
+            Consumer<String> errorHandler = line -> {
+                errorOutput.append(line).append("\n");
+                logger.error("jlink错误输出: {}", line);
+            };
+            
+            if (inProcess) {
+                exitCode = runJlinkInProcess(command.subList(1, command.size()), outputHandler, errorHandler);
+            } else {
+                exitCode = runJlinkProcess(command, outputHandler, errorHandler, cancellation);
             }
-        });
-        
-        // 读取错误输出
-        Thread errorThread = new Thread(() -> {
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(process.getErrorStream(), "UTF-8"))) {
-                
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    errorOutput.append(line).append("\n");
-                    logger.error("jlink错误输出: {}", line);
-                }
-            } catch (IOException e) {
-                logger.error("读取jlink错误输出失败", e);
+            
+            if (exitCode == 0) {
+                tracker.finish();
             }
-        });
-        
-        outputThread.start();
-        errorThread.start();
-        
-        int exitCode = process.waitFor();
-        
-        // 等待输出线程完成
-        try {
-            outputThread.join(1000);
-            errorThread.join(1000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
         }
         
+        // 被取消而结束的jlink不作为构建失败处理
+        cancellation.throwIfCancelled();
         if (exitCode != 0) {
             String errorMessage = "jlink执行失败，退出码: " + exitCode;
             if (errorOutput.length() > 0) {
@@ -310,8 +403,72 @@ public class JREBuilder {
             throw new RuntimeException(errorMessage);
         }
         
-        progressCallback.accept(1.0);
-        LogManager.logStepComplete("jlink执行成功");
+        LogManager.logStepComplete("jlink执行成功" + (inProcess ? "（进程内）" : ""));
+        
+        if (cache != null) {
+            cache.store(cacheKey, actualOutputPath);
+        }
+    }
+    
+    /**
+     * 通过ToolProvider在当前JVM中执行jlink，输出按行交给处理器
+     */
+    private int runJlinkInProcess(List<String> args, Consumer<String> outputHandler,
+                                  Consumer<String> errorHandler) {
+        try (PrintWriter out = new PrintWriter(new LineWriter(outputHandler), true);
+             PrintWriter err = new PrintWriter(new LineWriter(errorHandler), true)) {
+            return JLINK.get().run(out, err, args.toArray(new String[0]));
+        }
+    }
+    
+    /**
+     * 启动独立的jlink进程执行，输出按行交给处理器；取消时结束整个进程树
+     */
+    private int runJlinkProcess(List<String> command, Consumer<String> outputHandler,
+                                Consumer<String> errorHandler, CancellationToken cancellation) throws Exception {
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.directory(new File(System.getProperty("user.dir")));
+        
+        Process process = processBuilder.start();
+        
+        // 在共享的io线程池中分别读取标准输出和错误输出
+        TaskPool io = TaskExecutors.io();
+        CompletableFuture<Void> outputReader = io.run(
+            () -> readLines(process.getInputStream(), outputHandler, "读取jlink输出失败"));
+        CompletableFuture<Void> errorReader = io.run(
+            () -> readLines(process.getErrorStream(), errorHandler, "读取jlink错误输出失败"));
+        
+        int exitCode;
+        CancellationToken.Registration registration = cancellation.destroyOnCancel(process);
+        try {
+            exitCode = process.waitFor();
+        } finally {
+            registration.close();
+        }
+        
+        // 等待输出读取完成
+        awaitReader(outputReader);
+        awaitReader(errorReader);
+        return exitCode;
+    }
+    
+    private void awaitReader(CompletableFuture<Void> reader) throws InterruptedException {
+        try {
+            reader.get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            logger.debug("等待jlink输出读取结束失败: {}", e.toString());
+        }
+    }
+    
+    private void readLines(InputStream input, Consumer<String> handler, String errorMessage) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                handler.accept(line);
+            }
+        } catch (IOException e) {
+            logger.error(errorMessage, e);
+        }
     }
     
     /**
@@ -491,4 +648,45 @@ public class JREBuilder {
     private String getExecutableSuffix() {
         return System.getProperty("os.name").toLowerCase().contains("windows") ? ".exe" : "";
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 把写入的字符按行交给处理器，用于接收进程内jlink的输出
+     */
+    private static final class LineWriter extends Writer {
+        
+        private final Consumer<String> handler;
+        private final StringBuilder line = new StringBuilder();
+        
+        LineWriter(Consumer<String> handler) {
+            this.handler = handler;
+        }
+        
+        @Override
+        public synchronized void write(char[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                char c = buffer[i];
+                if (c == '\n') {
+                    emitLine();
+                } else if (c != '\r') {
+                    line.append(c);
+                }
+            }
+        }
+        
+        @Override
+        public void flush() {
+        }
+        
+        @Override
+        public synchronized void close() {
+            if (line.length() > 0) {
+                emitLine();
+            }
+        }
+        
+        private void emitLine() {
+            handler.accept(line.toString());
+            line.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.zlgg.builder;
+
+import com.zlgg.model.BuildConfiguration;
+import com.zlgg.util.TaskExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * jlink进度跟踪器
+ * jlink的执行分为两个阶段：
+ * 1. 解析模块：--verbose 每解析一个模块输出一行"模块名 位置"，按已解析模块数/请求模块数计算进度
+ * 2. 插件处理并写入镜像：jlink在这一阶段没有任何输出，按已解析模块的jmod总大小和启用的插件
+ *    （压缩、去除调试信息）估算耗时，随时间推进，完成前最多推进到95%
+ * 进度以百分比（0-100）上报，与项目中其他进度回调一致
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class JlinkProgressTracker implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JlinkProgressTracker.class);
+    
+    // 各阶段在整体进度（百分比）中的结束位置
+    private static final double RESOLVE_END = 15.0;
+    private static final double IMAGE_END = 95.0;
+    
+    // 不做任何插件处理时的估算吞吐量（jmod字节/毫秒）
+    private static final double BASE_BYTES_PER_MS = 11_000;
+    // 无法取得jmod大小时（如从jrt:/解析）每个模块的估算大小
+    private static final long DEFAULT_MODULE_BYTES = 1024 * 1024;
+    private static final long MIN_IMAGE_MILLIS = 1000;
+    
+    private final int requestedModules;
+    private final double bytesPerMs;
+    private final Consumer<Double> progressCallback;
+    private final ScheduledFuture<?> ticker;
+    
+    private int resolvedModules;
+    private long resolvedBytes;
+    private long imageStageStart = -1;
+    private double reported = -1;
+    
+    JlinkProgressTracker(int requestedModules, BuildConfiguration config, Consumer<Double> progressCallback) {
+        this.requestedModules = Math.max(1, requestedModules);
+        this.bytesPerMs = BASE_BYTES_PER_MS * pluginCostFactor(config);
+        this.progressCallback = progressCallback;
+        this.ticker = TaskExecutors.scheduler().scheduleAtFixedRate(this::tick, 250, 250, TimeUnit.MILLISECONDS);
+        report(0.0);
+    }
+    
+    /**
+     * 处理jlink输出的一行
+     */
+    synchronized void onOutputLine(String line) {
+        if (imageStageStart >= 0) {
+            return;
+        }
+        String trimmed = line.trim();
+        // 模块列表之后是空行和"Providers:"服务绑定信息，此时解析已经完成
+        if (trimmed.isEmpty() || trimmed.startsWith("Providers:")) {
+            if (resolvedModules > 0) {
+                startImageStage();
+            }
+            return;
+        }
+        String[] parts = trimmed.split("\\s+");
+        if (parts.length != 2) {
+            return;
+        }
+        resolvedModules++;
+        resolvedBytes += moduleSize(parts[1]);
+        report(RESOLVE_END * Math.min(1.0, (double) resolvedModules / requestedModules));
+    }
+    
+    /**
+     * jlink执行结束
+     */
+    @Override
+    public void close() {
+        ticker.cancel(false);
+    }
+    
+    /**
+     * jlink执行成功
+     */
+    void finish() {
+        close();
+        report(100.0);
+    }
+    
+    private void startImageStage() {
+        imageStageStart = System.currentTimeMillis();
+        logger.debug("jlink已解析 {} 个模块（jmod共 {} 字节），预计写入镜像耗时 {}ms",
+                   resolvedModules, resolvedBytes, expectedImageMillis());
+        report(RESOLVE_END);
+    }
+    
+    private synchronized void tick() {
+        if (imageStageStart < 0) {
+            return;
+        }
+        long elapsed = System.currentTimeMillis() - imageStageStart;
+        double fraction = Math.min(1.0, (double) elapsed / expectedImageMillis());
+        report(RESOLVE_END + (IMAGE_END - RESOLVE_END) * fraction);
+    }
+    
+    private long expectedImageMillis() {
+        return Math.max(MIN_IMAGE_MILLIS, (long) (resolvedBytes / bytesPerMs));
+    }
+    
+    /**
+     * 只上报递增的进度
+     */
+    private synchronized void report(double progress) {
+        if (progress > reported) {
+            reported = progress;
+            progressCallback.accept(progress);
+        }
+    }
+    
+    private static long moduleSize(String location) {
+        if (location.startsWith("file:")) {
+            try {
+                Path jmod = Paths.get(URI.create(location));
+                if (Files.isRegularFile(jmod)) {
+                    return Files.size(jmod);
+                }
+            } catch (Exception e) {
+                logger.debug("无法读取模块大小: {}", location);
+            }
+        }
+        return DEFAULT_MODULE_BYTES;
+    }
+    
+    /**
+     * 启用的插件越多，单位数据的处理耗时越长
+     */
+    private static double pluginCostFactor(BuildConfiguration config) {
+        double factor = 1.0;
+        if (config.isCompress()) {
+            factor *= config.getCompressionLevel() >= 2 ? 0.4 : 0.7;
+        }
+        if (config.isStripDebug()) {
+            factor *= 0.9;
+        }
+        return factor;
+    }
+}
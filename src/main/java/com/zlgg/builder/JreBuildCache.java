@@ -0,0 +1,223 @@
+package com.zlgg.builder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 本地JRE构建缓存
+ * 以"排序后的模块列表 + jlink参数 + JDK标识"的SHA-256为键保存jlink生成的镜像，
+ * 模块列表和构建配置相同的应用只需要执行一次jlink。
+ * 加入缓存和从缓存生成输出目录时都完整复制镜像，缓存中的文件不与任何输出目录共用，
+ * 之后对输出目录的修改（strip、签名、安装程序打包等）不会影响缓存和其他输出。
+ * 缓存不会自动清理，只在指定了缓存目录时使用（见CacheDirectories）
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class JreBuildCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JreBuildCache.class);
+    
+    // 缓存内容的组织方式变化时需要递增
+    private static final int FORMAT_VERSION = 2;
+    
+    private final Path directory;
+    
+    JreBuildCache(Path directory) {
+        this.directory = directory;
+    }
+    
+    /**
+     * 计算缓存键
+     *
+     * @param jlinkArgs jlink参数（不含可执行文件路径），其中--output和--verbose不参与计算，
+     *                  --add-modules的模块列表排序后参与计算
+     */
+    static String key(List<String> jlinkArgs) {
+        StringBuilder identity = new StringBuilder();
+        identity.append("format=").append(FORMAT_VERSION).append('\n');
+        // JDK标识：不同的JDK（或同一路径下升级后的JDK）生成的镜像不同
+        identity.append("java.home=").append(System.getProperty("java.home")).append('\n');
+        identity.append("java.runtime.version=").append(System.getProperty("java.runtime.version")).append('\n');
+        identity.append("java.vendor=").append(System.getProperty("java.vendor")).append('\n');
+        identity.append("os=").append(System.getProperty("os.name")).append(' ').append(System.getProperty("os.arch")).append('\n');
+        
+        for (int i = 0; i < jlinkArgs.size(); i++) {
+            String arg = jlinkArgs.get(i);
+            if ("--output".equals(arg)) {
+                i++;
+                continue;
+            }
+            if ("--verbose".equals(arg)) {
+                continue;
+            }
+            identity.append(arg).append('\n');
+            if (i + 1 < jlinkArgs.size() && "--add-modules".equals(arg)) {
+                String[] modules = jlinkArgs.get(++i).split(",");
+                Arrays.sort(modules);
+                identity.append(String.join(",", modules)).append('\n');
+            } else if (i + 1 < jlinkArgs.size() && "--module-path".equals(arg)) {
+                String modulePath = jlinkArgs.get(++i);
+                identity.append(modulePath).append('\n');
+                appendModulePathIdentity(identity, modulePath);
+            }
+        }
+        return sha256(identity.toString());
+    }
+    
+    /**
+     * 从缓存生成JRE目录
+     *
+     * @param target 输出目录，必须不存在
+     * @return 未命中时返回false
+     */
+    boolean materialize(String key, Path target) {
+        Path image = directory.resolve(key);
+        if (!Files.isDirectory(image)) {
+            return false;
+        }
+        try {
+            copyTree(image, target);
+            logger.debug("从JRE构建缓存生成输出目录: {} -> {}", image, target);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("从JRE构建缓存生成输出目录失败，将重新执行jlink: {}, 错误: {}", image, e.getMessage());
+            deleteQuietly(target);
+            return false;
+        }
+    }
+    
+    /**
+     * 把jlink生成的镜像加入缓存
+     * 先在临时目录中生成，完成后再原子移动到最终位置，避免其他构建读取到不完整的镜像
+     */
+    void store(String key, Path image) {
+        Path finalDir = directory.resolve(key);
+        if (Files.isDirectory(finalDir)) {
+            return;
+        }
+        Path tempDir = null;
+        try {
+            Files.createDirectories(directory);
+            tempDir = Files.createTempDirectory(directory, key + ".tmp");
+            Path staging = tempDir.resolve("image");
+            copyTree(image, staging);
+            try {
+                Files.move(staging, finalDir, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(staging, finalDir);
+            }
+            logger.debug("JRE镜像已加入构建缓存: {}", finalDir);
+        } catch (FileAlreadyExistsException e) {
+            // 其他构建已经写入了同一个镜像
+        } catch (IOException | RuntimeException e) {
+            logger.warn("写入JRE构建缓存失败: {}, 错误: {}", finalDir, e.getMessage());
+        } finally {
+            if (tempDir != null) {
+                deleteQuietly(tempDir);
+            }
+        }
+    }
+    
+    Path getDirectory() {
+        return directory;
+    }
+    
+    /**
+     * 复制目录树，符号链接原样重建
+     */
+    private static void copyTree(Path source, Path target) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(source)) {
+            paths = new ArrayList<>();
+            walk.forEach(paths::add);
+        }
+        for (Path path : paths) {
+            Path destination = target.resolve(source.relativize(path).toString());
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                Files.createDirectories(destination);
+                continue;
+            }
+            if (Files.isSymbolicLink(path)) {
+                // jlink镜像的legal目录中有指向java.base的相对符号链接，原样重建
+                Files.createSymbolicLink(destination, Files.readSymbolicLink(path));
+                continue;
+            }
+            Files.copy(path, destination, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+    }
+    
+    /**
+     * 模块路径中每个jmod文件的名称、大小和修改时间，JavaFX SDK等被替换后缓存自然失效
+     */
+    private static void appendModulePathIdentity(StringBuilder identity, String modulePath) {
+        for (String entry : modulePath.split(File.pathSeparator)) {
+            Path dir = Path.of(entry);
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.list(dir)) {
+                files.filter(file -> file.getFileName().toString().endsWith(".jmod"))
+                     .sorted()
+                     .forEach(file -> {
+                         try {
+                             identity.append(file.getFileName()).append(' ')
+                                     .append(Files.size(file)).append(' ')
+                                     .append(Files.getLastModifiedTime(file).toMillis()).append('\n');
+                         } catch (IOException e) {
+                             identity.append(file.getFileName()).append(" ?\n");
+                         }
+                     });
+            } catch (IOException e) {
+                logger.debug("无法读取模块路径: {}", dir);
+            }
+        }
+    }
+    
+    private static String sha256(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+    
+    private static void deleteQuietly(Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(path)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.delete(p);
+                } catch (IOException e) {
+                    logger.debug("无法删除: {}", p);
+                }
+            });
+        } catch (IOException e) {
+            logger.debug("无法删除: {}", path);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.zlgg.model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 分析过程的分阶段指标
+ * 记录每个分析阶段的耗时、读取的字节数、访问的条目数、解析的类数量以及分配的内存，
+ * 用于定位某个JAR分析缓慢时具体是哪个阶段的问题。没有执行的阶段（例如非Spring Boot应用的
+ * Spring Boot阶段、不需要jdeps补充时的jdeps阶段）不包含在指标中
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+public final class AnalysisMetrics {
+    
+    /**
+     * 分析阶段（按执行顺序）
+     */
+    public enum Phase {
+        JAR_INFO("JAR基本信息"),
+        CLASS_SCAN("类文件分析"),
+        SPRING_BOOT("Spring Boot依赖"),
+        JAVAFX_DETECTION("JavaFX检测"),
+        RUNTIME_MODULES("运行时模块"),
+        JDEPS("jdeps补充");
+        
+        private final String description;
+        
+        Phase(String description) {
+            this.description = description;
+        }
+        
+        public String getDescription() {
+            return description;
+        }
+    }
+    
+    /**
+     * 单个阶段的指标
+     */
+    public static final class PhaseMetrics {
+        private final long elapsedNanos;
+        private final long bytesRead;
+        private final long entriesVisited;
+        private final long classesParsed;
+        private final long allocatedBytes;
+        
+        /**
+         * @param elapsedNanos 耗时（纳秒）
+         * @param bytesRead 读取的字节数（解压后的条目内容、内嵌JAR以及计算缓存键时读取的文件）
+         * @param entriesVisited 访问的JAR条目数
+         * @param classesParsed 解析的类文件数
+         * @param allocatedBytes 分配的堆内存字节数，JVM不支持统计时为-1
+         */
+        public PhaseMetrics(long elapsedNanos, long bytesRead, long entriesVisited,
+                            long classesParsed, long allocatedBytes) {
+            this.elapsedNanos = elapsedNanos;
+            this.bytesRead = bytesRead;
+            this.entriesVisited = entriesVisited;
+            this.classesParsed = classesParsed;
+            this.allocatedBytes = allocatedBytes;
+        }
+        
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+        
+        /**
+         * 耗时（毫秒）
+         */
+        public double getElapsedMs() {
+            return elapsedNanos / 1_000_000.0;
+        }
+        
+        public long getBytesRead() {
+            return bytesRead;
+        }
+        
+        public long getEntriesVisited() {
+            return entriesVisited;
+        }
+        
+        public long getClassesParsed() {
+            return classesParsed;
+        }
+        
+        /**
+         * 分配的堆内存字节数，JVM不支持统计时为-1
+         * 按参与分析的线程统计，同时进行的其他分析不会计入
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%.1fms, 读取 %d 字节, %d 个条目, %d 个类, 分配 %d 字节",
+                                 getElapsedMs(), bytesRead, entriesVisited, classesParsed, allocatedBytes);
+        }
+    }
+    
+    private static final AnalysisMetrics EMPTY = new AnalysisMetrics(new EnumMap<>(Phase.class));
+    
+    private final Map<Phase, PhaseMetrics> phases;
+    
+    private AnalysisMetrics(EnumMap<Phase, PhaseMetrics> phases) {
+        this.phases = Collections.unmodifiableMap(phases);
+    }
+    
+    /**
+     * 没有任何阶段指标（例如由旧代码直接构造的分析结果）
+     */
+    public static AnalysisMetrics empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * 获取已执行阶段的指标（按阶段顺序，只读）
+     */
+    public Map<Phase, PhaseMetrics> getPhases() {
+        return phases;
+    }
+    
+    /**
+     * 获取指定阶段的指标，阶段未执行时返回null
+     */
+    public PhaseMetrics get(Phase phase) {
+        return phases.get(phase);
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    @Override
+    public String toString() {
+        return "AnalysisMetrics" + phases;
+    }
+    
+    public static class Builder {
+        private final EnumMap<Phase, PhaseMetrics> phases = new EnumMap<>(Phase.class);
+        
+        public Builder phase(Phase phase, PhaseMetrics metrics) {
+            if (phase == null || metrics == null) {
+                throw new IllegalArgumentException("阶段和指标不能为空");
+            }
+            phases.put(phase, metrics);
+            return this;
+        }
+        
+        public AnalysisMetrics build() {
+            return new AnalysisMetrics(new EnumMap<>(phases));
+        }
+    }
+}
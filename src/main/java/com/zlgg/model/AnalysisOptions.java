@@ -0,0 +1,263 @@
+package com.zlgg.model;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * JAR分析选项
+ * 控制分析器的并行度、批次大小等运行参数
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+public class AnalysisOptions {
+    
+    /**
+     * JAR文件读取方式
+     */
+    public enum ArchiveAccess {
+        AUTO,           // 根据文件大小自动选择
+        JAR_FILE,       // 使用java.util.jar.JarFile
+        MEMORY_MAPPED   // 内存映射并自行解析中央目录
+    }
+    
+    /**
+     * 类文件扫描方式
+     */
+    public enum ScanMode {
+        BYTECODE,       // ASM逐条访问方法体指令
+        CONSTANT_POOL   // 只读取常量池和成员描述符，速度更快
+    }
+    
+    private final int parallelism;
+    private final int batchSize;
+    private final ArchiveAccess archiveAccess;
+    private final ScanMode scanMode;
+    private final long mappedArchiveThreshold;
+    private final boolean analyzeNestedJars;
+    private final Path cacheDirectory;
+    private final boolean reachabilityAnalysis;
+    private final boolean concurrentJdeps;
+    private final Set<String> reachabilityRoots;
+    
+    private AnalysisOptions(Builder builder) {
+        this.parallelism = builder.parallelism;
+        this.batchSize = builder.batchSize;
+        this.archiveAccess = builder.archiveAccess;
+        this.scanMode = builder.scanMode;
+        this.mappedArchiveThreshold = builder.mappedArchiveThreshold;
+        this.analyzeNestedJars = builder.analyzeNestedJars;
+        this.cacheDirectory = builder.cacheDirectory;
+        this.reachabilityAnalysis = builder.reachabilityAnalysis;
+        this.concurrentJdeps = builder.concurrentJdeps;
+        this.reachabilityRoots = Collections.unmodifiableSet(new LinkedHashSet<>(builder.reachabilityRoots));
+    }
+    
+    /**
+     * 类文件分析的并行度，1表示使用单线程分析
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    /**
+     * 每个并行任务处理的类文件数量
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * JAR文件读取方式
+     */
+    public ArchiveAccess getArchiveAccess() {
+        return archiveAccess;
+    }
+    
+    /**
+     * 类文件扫描方式
+     */
+    public ScanMode getScanMode() {
+        return scanMode;
+    }
+    
+    /**
+     * AUTO模式下使用内存映射读取的文件大小阈值（字节）
+     */
+    public long getMappedArchiveThreshold() {
+        return mappedArchiveThreshold;
+    }
+    
+    /**
+     * 是否分析Spring Boot胖JAR中BOOT-INF/lib/下的依赖JAR
+     * 关闭时改为添加一组固定的Spring Boot常用模块
+     */
+    public boolean isAnalyzeNestedJars() {
+        return analyzeNestedJars;
+    }
+    
+    /**
+     * 分析缓存目录，为null时不使用缓存（默认）
+     * 缓存以JAR内容的SHA-256为键，保存每个JAR的类依赖摘要和模块集合；缓存不会自动清理，
+     * 应放在专门的缓存目录（见CacheDirectories）中
+     */
+    public Path getCacheDirectory() {
+        return cacheDirectory;
+    }
+    
+    /**
+     * 是否启用可达性分析
+     * 启用后只根据从入口类（Main-Class、Start-Class、服务提供者、Spring自动配置类、
+     * FXML控制器及自定义根类）可达的类计算所需模块。通过反射按名称加载的类无法被发现，
+     * 需要通过自定义根类补充
+     */
+    public boolean isReachabilityAnalysis() {
+        return reachabilityAnalysis;
+    }
+    
+    /**
+     * 可达性分析的自定义根类，以".*"结尾时表示该包（含子包）下的所有类
+     */
+    public Set<String> getReachabilityRoots() {
+        return reachabilityRoots;
+    }
+    
+    /**
+     * 是否在类文件分析开始时就在后台启动jdeps进程，与类文件分析同时进行（默认关闭）。
+     * 开启后未命中分析缓存的每次分析都要多启动一个JVM，多数情况下结果用不上；
+     * 关闭时只在检测到的模块过少、确实需要补充时才在当前JVM中运行jdeps
+     */
+    public boolean isConcurrentJdeps() {
+        return concurrentJdeps;
+    }
+    
+    /**
+     * 获取默认分析选项
+     */
+    public static AnalysisOptions defaults() {
+        return builder().build();
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * 以当前选项为初始值创建构建器
+     */
+    public Builder toBuilder() {
+        return new Builder()
+            .parallelism(parallelism)
+            .batchSize(batchSize)
+            .archiveAccess(archiveAccess)
+            .scanMode(scanMode)
+            .mappedArchiveThreshold(mappedArchiveThreshold)
+            .analyzeNestedJars(analyzeNestedJars)
+            .cacheDirectory(cacheDirectory)
+            .reachabilityAnalysis(reachabilityAnalysis)
+            .reachabilityRoots(reachabilityRoots)
+            .concurrentJdeps(concurrentJdeps);
+    }
+    
+    public static class Builder {
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int batchSize = 256;
+        private ArchiveAccess archiveAccess = ArchiveAccess.AUTO;
+        private ScanMode scanMode = ScanMode.BYTECODE;
+        private long mappedArchiveThreshold = 256L * 1024 * 1024;
+        private boolean analyzeNestedJars = true;
+        private Path cacheDirectory = null;
+        private boolean reachabilityAnalysis = false;
+        private Set<String> reachabilityRoots = new LinkedHashSet<>();
+        private boolean concurrentJdeps = false;
+        
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+        
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+        
+        public Builder archiveAccess(ArchiveAccess archiveAccess) {
+            this.archiveAccess = archiveAccess;
+            return this;
+        }
+        
+        public Builder scanMode(ScanMode scanMode) {
+            this.scanMode = scanMode;
+            return this;
+        }
+        
+        public Builder mappedArchiveThreshold(long mappedArchiveThreshold) {
+            this.mappedArchiveThreshold = mappedArchiveThreshold;
+            return this;
+        }
+        
+        public Builder analyzeNestedJars(boolean analyzeNestedJars) {
+            this.analyzeNestedJars = analyzeNestedJars;
+            return this;
+        }
+        
+        public Builder cacheDirectory(Path cacheDirectory) {
+            this.cacheDirectory = cacheDirectory;
+            return this;
+        }
+        
+        public Builder reachabilityAnalysis(boolean reachabilityAnalysis) {
+            this.reachabilityAnalysis = reachabilityAnalysis;
+            return this;
+        }
+        
+        public Builder reachabilityRoots(Set<String> reachabilityRoots) {
+            this.reachabilityRoots = new LinkedHashSet<>(reachabilityRoots);
+            return this;
+        }
+        
+        public Builder addReachabilityRoot(String root) {
+            this.reachabilityRoots.add(root);
+            return this;
+        }
+        
+        public Builder concurrentJdeps(boolean concurrentJdeps) {
+            this.concurrentJdeps = concurrentJdeps;
+            return this;
+        }
+        
+        public AnalysisOptions build() {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("并行度必须大于0: " + parallelism);
+            }
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("批次大小必须大于0: " + batchSize);
+            }
+            if (archiveAccess == null) {
+                throw new IllegalArgumentException("JAR读取方式不能为空");
+            }
+            if (scanMode == null) {
+                throw new IllegalArgumentException("类文件扫描方式不能为空");
+            }
+            return new AnalysisOptions(this);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "AnalysisOptions{" +
+                "parallelism=" + parallelism +
+                ", batchSize=" + batchSize +
+                ", archiveAccess=" + archiveAccess +
+                ", scanMode=" + scanMode +
+                ", mappedArchiveThreshold=" + mappedArchiveThreshold +
+                ", analyzeNestedJars=" + analyzeNestedJars +
+                ", cacheDirectory=" + cacheDirectory +
+                ", reachabilityAnalysis=" + reachabilityAnalysis +
+                ", reachabilityRoots=" + reachabilityRoots +
+                ", concurrentJdeps=" + concurrentJdeps +
+                '}';
+    }
+}
@@ -14,10 +14,11 @@ public class AnalysisResult {
     
     private final JarInfo jarInfo;
     private final Set<String> requiredModules;
-    private final List<ClassDependency> classDependencies;
+    private final DependencyGraph dependencyGraph;
     private final List<String> externalJars;
     private final boolean requiresJavaFx;
     private final long analysisTimeMs;
+    private final AnalysisMetrics metrics;
     
     public AnalysisResult(JarInfo jarInfo, 
                          Set<String> requiredModules,
@@ -25,12 +26,34 @@ public class AnalysisResult {
                          List<String> externalJars,
                          boolean requiresJavaFx,
                          long analysisTimeMs) {
+        this(jarInfo, requiredModules, DependencyGraph.of(classDependencies, new SymbolTable()),
+             externalJars, requiresJavaFx, analysisTimeMs);
+    }
+    
+    public AnalysisResult(JarInfo jarInfo, 
+                         Set<String> requiredModules,
+                         DependencyGraph dependencyGraph,
+                         List<String> externalJars,
+                         boolean requiresJavaFx,
+                         long analysisTimeMs) {
+        this(jarInfo, requiredModules, dependencyGraph, externalJars, requiresJavaFx, analysisTimeMs,
+             AnalysisMetrics.empty());
+    }
+    
+    public AnalysisResult(JarInfo jarInfo, 
+                         Set<String> requiredModules,
+                         DependencyGraph dependencyGraph,
+                         List<String> externalJars,
+                         boolean requiresJavaFx,
+                         long analysisTimeMs,
+                         AnalysisMetrics metrics) {
         this.jarInfo = jarInfo;
         this.requiredModules = requiredModules;
-        this.classDependencies = classDependencies;
+        this.dependencyGraph = dependencyGraph;
         this.externalJars = externalJars;
         this.requiresJavaFx = requiresJavaFx;
         this.analysisTimeMs = analysisTimeMs;
+        this.metrics = metrics;
     }
     
     /**
@@ -49,9 +72,17 @@ public class AnalysisResult {
     
     /**
      * 获取类依赖关系列表
+     * 只读视图，元素在访问时由依赖图按需创建
      */
     public List<ClassDependency> getClassDependencies() {
-        return classDependencies;
+        return dependencyGraph.asClassDependencies();
+    }
+    
+    /**
+     * 获取类依赖图（只读）
+     */
+    public DependencyGraph getDependencyGraph() {
+        return dependencyGraph;
     }
     
     /**
@@ -75,12 +106,19 @@ public class AnalysisResult {
         return analysisTimeMs;
     }
     
+    /**
+     * 获取分阶段指标（耗时、读取字节、访问条目、解析类数量和内存分配）
+     */
+    public AnalysisMetrics getMetrics() {
+        return metrics;
+    }
+    
     @Override
     public String toString() {
         return "AnalysisResult{" +
                 "jarInfo=" + jarInfo +
                 ", requiredModules=" + requiredModules.size() +
-                ", classDependencies=" + classDependencies.size() +
+                ", classDependencies=" + dependencyGraph.getClassCount() +
                 ", externalJars=" + externalJars.size() +
                 ", requiresJavaFx=" + requiresJavaFx +
                 ", analysisTimeMs=" + analysisTimeMs +
@@ -19,6 +19,8 @@ public class BuildConfiguration {
     private final int compressionLevel;
     private final boolean includeJavaFx;
     private final boolean enableAdvancedFeatures;  // 新增：启用高级功能支持
+    private final boolean jlinkInProcess;          // 在当前JVM中运行jlink（无法中途取消）
+    private final Path jreCacheDirectory;          // JRE构建缓存目录，null表示不使用缓存
     
     private BuildConfiguration(Builder builder) {
         this.outputPath = builder.outputPath;
@@ -30,6 +32,8 @@ public class BuildConfiguration {
         this.compressionLevel = builder.compressionLevel;
         this.includeJavaFx = builder.includeJavaFx;
         this.enableAdvancedFeatures = builder.enableAdvancedFeatures;
+        this.jlinkInProcess = builder.jlinkInProcess;
+        this.jreCacheDirectory = builder.jreCacheDirectory;
     }
     
     public Path getOutputPath() {
@@ -68,6 +72,22 @@ public class BuildConfiguration {
         return enableAdvancedFeatures;
     }
     
+    /**
+     * 是否通过ToolProvider在当前JVM中运行jlink（默认关闭）。
+     * 进程内的jlink省去了启动新JVM的开销，但无法中途停止，取消要等jlink返回后才生效；
+     * 关闭时启动独立的jlink进程，取消时立即结束
+     */
+    public boolean isJlinkInProcess() {
+        return jlinkInProcess;
+    }
+    
+    /**
+     * JRE构建缓存目录，模块列表、jlink参数和JDK都相同时直接复用缓存的镜像；为null时不使用缓存（默认）
+     */
+    public Path getJreCacheDirectory() {
+        return jreCacheDirectory;
+    }
+    
     public static Builder builder() {
         return new Builder();
     }
@@ -82,6 +102,8 @@ public class BuildConfiguration {
         private int compressionLevel = 2;
         private boolean includeJavaFx = false;
         private boolean enableAdvancedFeatures = false;
+        private boolean jlinkInProcess = false;
+        private Path jreCacheDirectory = null;
         
         public Builder outputPath(Path outputPath) {
             this.outputPath = outputPath;
@@ -129,6 +151,16 @@ public class BuildConfiguration {
             return this;
         }
         
+        public Builder jlinkInProcess(boolean jlinkInProcess) {
+            this.jlinkInProcess = jlinkInProcess;
+            return this;
+        }
+        
+        public Builder jreCacheDirectory(Path jreCacheDirectory) {
+            this.jreCacheDirectory = jreCacheDirectory;
+            return this;
+        }
+        
         public BuildConfiguration build() {
             if (outputPath == null) {
                 throw new IllegalArgumentException("输出路径不能为空");
@@ -149,6 +181,8 @@ public class BuildConfiguration {
                 ", compressionLevel=" + compressionLevel +
                 ", includeJavaFx=" + includeJavaFx +
                 ", enableAdvancedFeatures=" + enableAdvancedFeatures +
+                ", jlinkInProcess=" + jlinkInProcess +
+                ", jreCacheDirectory=" + jreCacheDirectory +
                 '}';
     }
 } 
\ No newline at end of file
@@ -16,11 +16,31 @@ public class ClassDependency {
     private final String javaModule;
     private final boolean isJavaFxClass;
     
+    // 依赖的符号编号（升序），以字符串集合构造时为null
+    private final int[] dependencyIds;
+    private final SymbolTable symbols;
+    
     public ClassDependency(String className, Set<String> dependencies, String javaModule, boolean isJavaFxClass) {
         this.className = className;
         this.dependencies = dependencies;
         this.javaModule = javaModule;
         this.isJavaFxClass = isJavaFxClass;
+        this.dependencyIds = null;
+        this.symbols = null;
+    }
+    
+    /**
+     * 以符号编号保存依赖，依赖名称只在符号表中保存一份
+     * 
+     * @param dependencyIds 依赖的符号编号，必须按升序排列且不重复（见SymbolTable.internAll）
+     */
+    public ClassDependency(String className, int[] dependencyIds, SymbolTable symbols, String javaModule, boolean isJavaFxClass) {
+        this.className = className;
+        this.dependencies = new SymbolSetView(dependencyIds, 0, dependencyIds.length, symbols);
+        this.javaModule = javaModule;
+        this.isJavaFxClass = isJavaFxClass;
+        this.dependencyIds = dependencyIds;
+        this.symbols = symbols;
     }
     
     public String getClassName() {
@@ -31,6 +51,16 @@ public class ClassDependency {
         return dependencies;
     }
     
+    /**
+     * 获取依赖在指定符号表中的编号（升序），同一符号表时直接复用已有数组
+     */
+    int[] dependencyIds(SymbolTable table) {
+        if (dependencyIds != null && symbols == table) {
+            return dependencyIds;
+        }
+        return table.internAll(dependencies);
+    }
+    
     public String getJavaModule() {
         return javaModule;
     }
@@ -0,0 +1,222 @@
+package com.zlgg.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 类依赖图（只读）
+ * JAR中分析到的每个类是一个节点，按下标[0, getClassCount())编号；
+ * 依赖以符号编号表示，采用CSR（压缩稀疏行）格式存放在一个int数组中：
+ * 第i个类的依赖为 targets[offsets[i] .. offsets[i+1])，每段按编号升序排列。
+ * 依赖中的外部类（如JDK类）只有符号编号，没有对应的类节点
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+public final class DependencyGraph {
+    
+    private final SymbolTable symbols;
+    private final int[] classSymbols;
+    private final String[] javaModules;
+    private final boolean[] javaFxClasses;
+    private final int[] offsets;
+    private final int[] targets;
+    // 符号编号到类节点下标的映射：编号范围较集中时用以minSymbol为起点的数组，
+    // 否则（如多个JAR共用符号表时）用按编号排序的数组二分查找，内存只与本图的类数量有关
+    private final int minSymbol;
+    private final int[] classIndexBySymbol;
+    private final int[] sortedSymbols;
+    private final int[] sortedClassIndexes;
+    
+    private DependencyGraph(SymbolTable symbols, int[] classSymbols, String[] javaModules, boolean[] javaFxClasses,
+                            int[] offsets, int[] targets) {
+        this.symbols = symbols;
+        this.classSymbols = classSymbols;
+        this.javaModules = javaModules;
+        this.javaFxClasses = javaFxClasses;
+        this.offsets = offsets;
+        this.targets = targets;
+        
+        int min = Integer.MAX_VALUE;
+        int max = -1;
+        for (int symbol : classSymbols) {
+            min = Math.min(min, symbol);
+            max = Math.max(max, symbol);
+        }
+        this.minSymbol = classSymbols.length > 0 ? min : 0;
+        long range = (long) max - minSymbol + 1;
+        if (range <= 4L * classSymbols.length + 1024) {
+            this.classIndexBySymbol = new int[(int) Math.max(0, range)];
+            Arrays.fill(classIndexBySymbol, -1);
+            for (int i = 0; i < classSymbols.length; i++) {
+                classIndexBySymbol[classSymbols[i] - minSymbol] = i;
+            }
+            this.sortedSymbols = null;
+            this.sortedClassIndexes = null;
+        } else {
+            long[] pairs = new long[classSymbols.length];
+            for (int i = 0; i < classSymbols.length; i++) {
+                pairs[i] = ((long) classSymbols[i] << 32) | i;
+            }
+            Arrays.sort(pairs);
+            this.classIndexBySymbol = null;
+            this.sortedSymbols = new int[pairs.length];
+            this.sortedClassIndexes = new int[pairs.length];
+            for (int i = 0; i < pairs.length; i++) {
+                sortedSymbols[i] = (int) (pairs[i] >>> 32);
+                sortedClassIndexes[i] = (int) pairs[i];
+            }
+        }
+    }
+    
+    /**
+     * 由类依赖集合构建依赖图，同名类只保留第一个
+     */
+    public static DependencyGraph of(Collection<ClassDependency> classes, SymbolTable symbols) {
+        int classCount = classes.size();
+        int[] classSymbols = new int[classCount];
+        String[] javaModules = new String[classCount];
+        boolean[] javaFxClasses = new boolean[classCount];
+        int[][] dependencyIds = new int[classCount][];
+        
+        int index = 0;
+        int edgeCount = 0;
+        BitSet seen = new BitSet();
+        for (ClassDependency classDep : classes) {
+            int symbol = symbols.intern(classDep.getClassName());
+            if (seen.get(symbol)) {
+                continue;
+            }
+            seen.set(symbol);
+            classSymbols[index] = symbol;
+            javaModules[index] = classDep.getJavaModule();
+            javaFxClasses[index] = classDep.isJavaFxClass();
+            dependencyIds[index] = classDep.dependencyIds(symbols);
+            edgeCount += dependencyIds[index].length;
+            index++;
+        }
+        
+        int[] offsets = new int[index + 1];
+        int[] targets = new int[edgeCount];
+        int edge = 0;
+        for (int i = 0; i < index; i++) {
+            offsets[i] = edge;
+            System.arraycopy(dependencyIds[i], 0, targets, edge, dependencyIds[i].length);
+            edge += dependencyIds[i].length;
+        }
+        offsets[index] = edge;
+        
+        return new DependencyGraph(symbols, Arrays.copyOf(classSymbols, index), Arrays.copyOf(javaModules, index),
+                                   Arrays.copyOf(javaFxClasses, index), offsets, targets);
+    }
+    
+    /**
+     * 类节点数量
+     */
+    public int getClassCount() {
+        return classSymbols.length;
+    }
+    
+    /**
+     * 依赖边数量
+     */
+    public int getEdgeCount() {
+        return targets.length;
+    }
+    
+    /**
+     * 符号表，依赖和类名的编号都来自这里
+     */
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+    
+    /**
+     * 按类名查找类节点下标，不在JAR中时返回-1
+     */
+    public int indexOf(String className) {
+        return classIndexOfSymbol(symbols.find(className));
+    }
+    
+    /**
+     * 按符号编号查找类节点下标，外部类返回-1
+     */
+    public int classIndexOfSymbol(int symbol) {
+        if (classIndexBySymbol != null) {
+            int offset = symbol - minSymbol;
+            return symbol >= 0 && offset >= 0 && offset < classIndexBySymbol.length ? classIndexBySymbol[offset] : -1;
+        }
+        int position = Arrays.binarySearch(sortedSymbols, symbol);
+        return position >= 0 ? sortedClassIndexes[position] : -1;
+    }
+    
+    public int getClassSymbol(int classIndex) {
+        return classSymbols[classIndex];
+    }
+    
+    public String getClassName(int classIndex) {
+        return symbols.name(classSymbols[classIndex]);
+    }
+    
+    public String getJavaModule(int classIndex) {
+        return javaModules[classIndex];
+    }
+    
+    public boolean isJavaFxClass(int classIndex) {
+        return javaFxClasses[classIndex];
+    }
+    
+    /**
+     * 类的依赖数量
+     */
+    public int getDependencyCount(int classIndex) {
+        return offsets[classIndex + 1] - offsets[classIndex];
+    }
+    
+    /**
+     * 类的第k个依赖的符号编号
+     */
+    public int getDependency(int classIndex, int k) {
+        if (k < 0 || k >= getDependencyCount(classIndex)) {
+            throw new IndexOutOfBoundsException("依赖下标越界: " + k);
+        }
+        return targets[offsets[classIndex] + k];
+    }
+    
+    /**
+     * 类的所有依赖的符号编号（升序）
+     */
+    public IntStream dependencies(int classIndex) {
+        return Arrays.stream(targets, offsets[classIndex], offsets[classIndex + 1]);
+    }
+    
+    /**
+     * 指定类节点的依赖信息（按需创建，不复制依赖数组）
+     */
+    public ClassDependency getClassDependency(int classIndex) {
+        return new ClassDependency(getClassName(classIndex),
+                                   new SymbolSetView(targets, offsets[classIndex], offsets[classIndex + 1], symbols),
+                                   javaModules[classIndex], javaFxClasses[classIndex]);
+    }
+    
+    /**
+     * 以ClassDependency列表的形式访问依赖图，元素在访问时才创建
+     */
+    public List<ClassDependency> asClassDependencies() {
+        return new AbstractList<>() {
+            @Override
+            public ClassDependency get(int index) {
+                return getClassDependency(index);
+            }
+            
+            @Override
+            public int size() {
+                return getClassCount();
+            }
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.zlgg.model;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 基于符号编号数组的只读类名集合
+ * 编号数组在[from, to)范围内按升序排列且不重复，名称在访问时才从符号表中取出
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class SymbolSetView extends AbstractSet<String> {
+    
+    private final int[] ids;
+    private final int from;
+    private final int to;
+    private final SymbolTable symbols;
+    
+    SymbolSetView(int[] ids, int from, int to, SymbolTable symbols) {
+        this.ids = ids;
+        this.from = from;
+        this.to = to;
+        this.symbols = symbols;
+    }
+    
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<>() {
+            private int index = from;
+            
+            @Override
+            public boolean hasNext() {
+                return index < to;
+            }
+            
+            @Override
+            public String next() {
+                if (index >= to) {
+                    throw new NoSuchElementException();
+                }
+                return symbols.name(ids[index++]);
+            }
+        };
+    }
+    
+    @Override
+    public int size() {
+        return to - from;
+    }
+    
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        int id = symbols.find((String) o);
+        return id >= 0 && Arrays.binarySearch(ids, from, to, id) >= 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.zlgg.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 符号表
+ * 为每个类名分配唯一的int编号，同一个类名在整个分析过程中只保存一份，
+ * 依赖关系只需要保存编号数组。
+ * 可以被多个分析线程同时使用：写入时加锁，按编号读取名称时无锁
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+public final class SymbolTable {
+    
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    
+    // 名称按固定大小的块存放，扩容时只替换块目录，已分配的编号位置不会移动
+    private volatile String[][] chunks = new String[16][];
+    private int size;
+    
+    /**
+     * 获取类名的编号，不存在时分配新编号
+     */
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            return internLocked(name);
+        }
+    }
+    
+    /**
+     * 批量获取编号，返回按编号升序排列且去重的数组
+     */
+    public int[] internAll(Collection<String> names) {
+        int[] result = new int[names.size()];
+        int count = 0;
+        synchronized (this) {
+            for (String name : names) {
+                result[count++] = internLocked(name);
+            }
+        }
+        Arrays.sort(result, 0, count);
+        return distinct(result, count);
+    }
+    
+    /**
+     * 批量获取编号，结果与输入一一对应（保持顺序，不去重）
+     */
+    public int[] internInOrder(Collection<String> names) {
+        int[] result = new int[names.size()];
+        int count = 0;
+        synchronized (this) {
+            for (String name : names) {
+                result[count++] = internLocked(name);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 查找类名的编号，不存在时返回-1
+     */
+    public int find(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+    
+    /**
+     * 按编号获取类名
+     */
+    public String name(int id) {
+        String[][] current = chunks;
+        int chunk = id >>> CHUNK_BITS;
+        if (id < 0 || chunk >= current.length || current[chunk] == null) {
+            throw new IndexOutOfBoundsException("无效的符号编号: " + id);
+        }
+        return current[chunk][id & CHUNK_MASK];
+    }
+    
+    /**
+     * 已分配的符号数量
+     */
+    public synchronized int size() {
+        return size;
+    }
+    
+    private int internLocked(String name) {
+        Integer existing = ids.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        int id = size;
+        int chunk = id >>> CHUNK_BITS;
+        String[][] current = chunks;
+        if (chunk == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        if (current[chunk] == null) {
+            current[chunk] = new String[CHUNK_SIZE];
+        }
+        current[chunk][id & CHUNK_MASK] = name;
+        chunks = current;
+        size = id + 1;
+        ids.put(name, id);
+        return id;
+    }
+    
+    private static int[] distinct(int[] sorted, int length) {
+        if (length == 0) {
+            return new int[0];
+        }
+        int count = 1;
+        for (int i = 1; i < length; i++) {
+            if (sorted[i] != sorted[count - 1]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        return count == sorted.length ? sorted : Arrays.copyOf(sorted, count);
+    }
+}
\ No newline at end of file
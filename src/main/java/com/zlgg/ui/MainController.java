@@ -4,12 +4,18 @@ import com.zlgg.analyzer.JarAnalyzer;
 import com.zlgg.builder.JREBuilder;
 import com.zlgg.config.AppConfig;
 import com.zlgg.config.ConfigManager;
+import com.zlgg.model.AnalysisOptions;
 import com.zlgg.model.AnalysisResult;
 import com.zlgg.model.BuildConfiguration;
 import com.zlgg.model.JarInfo;
 import com.zlgg.store.AppStore;
+import com.zlgg.ui.components.DependencyTreeModel;
 import com.zlgg.ui.components.LogArea;
+import com.zlgg.util.CacheDirectories;
+import com.zlgg.util.CancellationToken;
 import com.zlgg.util.LogManager;
+import com.zlgg.util.ProgressReporter;
+import com.zlgg.util.TaskExecutors;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
@@ -27,6 +33,8 @@ import java.io.File;
 import java.net.URL;
 import java.nio.file.Paths;
 import java.util.ResourceBundle;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 主界面控制器
@@ -49,6 +57,7 @@ public class MainController implements Initializable {
     @FXML private Button browseOutputButton;
     @FXML private Button analyzeButton;
     @FXML private Button buildJreButton;
+    @FXML private Button cancelButton;
     @FXML private ProgressBar progressBar;
     @FXML private Label statusLabel;
     @FXML private TextArea logTextArea;
@@ -66,6 +75,8 @@ public class MainController implements Initializable {
     private JarAnalyzer jarAnalyzer;
     private JREBuilder jreBuilder;
     private AnalysisResult currentAnalysis;
+    // 正在进行的分析或构建的取消令牌
+    private volatile CancellationToken currentCancellation;
     
     // 日志组件
     private LogArea logArea;
@@ -78,7 +89,10 @@ public class MainController implements Initializable {
         logger.info("初始化主界面控制器");
         
         // 初始化业务对象
-        jarAnalyzer = new JarAnalyzer();
+        // 只有通过系统属性指定了缓存目录时才使用分析缓存
+        jarAnalyzer = new JarAnalyzer(AnalysisOptions.builder()
+            .cacheDirectory(CacheDirectories.analysis(CacheDirectories.root()))
+            .build());
         jreBuilder = new JREBuilder();
         
         // 初始化配置管理器
@@ -134,6 +148,7 @@ public class MainController implements Initializable {
         
         // 初始状态设置
         buildJreButton.setDisable(true);
+        cancelButton.setDisable(true);
         progressBar.setVisible(false);
         updateStatusLabel("就绪", false);
         
@@ -163,6 +178,9 @@ public class MainController implements Initializable {
         // 构建JRE按钮
         buildJreButton.setOnAction(e -> buildJRE());
         
+        // 取消按钮
+        cancelButton.setOnAction(e -> cancelCurrentTask());
+        
         // JavaFX启用复选框
         enableJavafxCheckBox.setOnAction(e -> toggleJavafxSdk());
     }
@@ -249,6 +267,8 @@ public class MainController implements Initializable {
         
         // 设置状态
         AppStore.setState(AppStore.AppState.ANALYZING);
+        CancellationToken cancellation = new CancellationToken();
+        currentCancellation = cancellation;
         setUIBusy(true);
         
         // 创建分析任务
@@ -263,26 +283,20 @@ public class MainController implements Initializable {
                 // 创建构建配置以传递给分析器
                 BuildConfiguration buildConfig = createBuildConfiguration();
                 
-                return jarAnalyzer.analyze(jarFile.toPath(), progress -> {
-                    Platform.runLater(() -> {
-                        updateProgress(progress, 100);
-                        String progressMsg = "分析进度: " + String.format("%.1f", progress) + "%";
-                        updateMessage(progressMsg);
-                        
-                        // 添加进度日志
-                        if (progress == 20.0) {
-                            LogManager.logStepComplete("JAR基本信息收集完成");
-                        } else if (progress >= 21.0 && progress <= 69.0 && progress % 10 == 0) {
-                            LogManager.logProgress("正在分析类文件... (" + String.format("%.0f", progress) + "%)");
-                        } else if (progress == 70.0) {
-                            LogManager.logStepComplete("类文件依赖分析完成");
-                        } else if (progress == 90.0) {
-                            LogManager.logStepComplete("Spring Boot结构分析完成");
-                        } else if (progress == 100.0) {
-                            LogManager.logStepComplete("JavaFX依赖检测完成");
-                        }
-                    });
-                }, buildConfig);
+                // 进度回调已经按时间合并，updateProgress/updateMessage本身会合并到界面线程，无需再逐次切换线程。
+                // 进度日志按跨过的10%刻度输出，每个刻度只输出一次
+                AtomicInteger loggedTenths = new AtomicInteger();
+                ProgressReporter reporter = ProgressReporter.of(progress -> {
+                    updateProgress(progress, 100);
+                    updateMessage("分析进度: " + String.format("%.1f", progress) + "%");
+                    
+                    int tenths = (int) ((progress + 1e-6) / 10);
+                    int previous = loggedTenths.getAndAccumulate(tenths, Math::max);
+                    for (int step = previous + 1; step <= tenths; step++) {
+                        logAnalysisStep(step * 10);
+                    }
+                }, 100.0);
+                return jarAnalyzer.analyze(jarFile.toPath(), reporter, buildConfig, cancellation);
             }
             
             @Override
@@ -327,6 +341,11 @@ public class MainController implements Initializable {
                     statusLabel.textProperty().unbind();
                     progressBar.progressProperty().unbind();
                     
+                    if (getException() instanceof CancellationException) {
+                        onTaskCancelled("分析已取消");
+                        return;
+                    }
+                    
                     AppStore.setState(AppStore.AppState.ERROR);
                     setUIBusy(false);
                     updateStatusLabel("分析失败", true);
@@ -348,10 +367,51 @@ public class MainController implements Initializable {
         // 显示进度条
         progressBar.setVisible(true);
         
-        // 启动分析任务
-        Thread analysisThread = new Thread(analysisTask);
-        analysisThread.setDaemon(true);
-        analysisThread.start();
+        // 在共享的background线程池中启动分析任务
+        TaskExecutors.background().run(analysisTask);
+    }
+    
+    /**
+     * 取消正在进行的分析或构建
+     * 任务在下一个检查点停止（独立的jlink/jdeps进程立即结束），停止后由任务的failed()恢复界面。
+     * 界面使用默认的构建配置，jlink总是以独立进程运行，构建可以随时取消
+     */
+    private void cancelCurrentTask() {
+        CancellationToken cancellation = currentCancellation;
+        if (cancellation == null || cancellation.isCancelled()) {
+            return;
+        }
+        cancelButton.setDisable(true);
+        LogManager.logWarning("正在取消...");
+        cancellation.cancel();
+    }
+    
+    /**
+     * 任务因取消而结束时恢复界面状态
+     */
+    private void onTaskCancelled(String message) {
+        AppStore.setState(AppStore.AppState.READY);
+        setUIBusy(false);
+        updateStatusLabel(message, false);
+        progressBar.setVisible(false);
+        LogManager.logWarning(message);
+    }
+    
+    /**
+     * 分析进度到达指定百分比刻度时输出的日志
+     */
+    private static void logAnalysisStep(int percent) {
+        if (percent == 20) {
+            LogManager.logStepComplete("JAR基本信息收集完成");
+        } else if (percent > 20 && percent < 70) {
+            LogManager.logProgress("正在分析类文件... (" + percent + "%)");
+        } else if (percent == 70) {
+            LogManager.logStepComplete("类文件依赖分析完成");
+        } else if (percent == 90) {
+            LogManager.logStepComplete("Spring Boot结构分析完成");
+        } else if (percent == 100) {
+            LogManager.logStepComplete("JavaFX依赖检测完成");
+        }
     }
     
     /**
@@ -374,6 +434,8 @@ public class MainController implements Initializable {
         
         // 设置状态
         AppStore.setState(AppStore.AppState.BUILDING);
+        CancellationToken cancellation = new CancellationToken();
+        currentCancellation = cancellation;
         setUIBusy(true);
         
         // 创建构建任务
@@ -391,11 +453,9 @@ public class MainController implements Initializable {
                 }
                 
                 jreBuilder.buildJRE(currentAnalysis, config, progress -> {
-                    Platform.runLater(() -> {
-                        updateProgress(progress, 100);
-                        updateMessage("构建进度: " + String.format("%.1f", progress) + "%");
-                    });
-                });
+                    updateProgress(progress, 100);
+                    updateMessage("构建进度: " + String.format("%.1f", progress) + "%");
+                }, cancellation);
                 
                 return null;
             }
@@ -435,6 +495,11 @@ public class MainController implements Initializable {
                     statusLabel.textProperty().unbind();
                     progressBar.progressProperty().unbind();
                     
+                    if (getException() instanceof CancellationException) {
+                        onTaskCancelled("构建已取消，未完成的JRE目录已删除");
+                        return;
+                    }
+                    
                     AppStore.setState(AppStore.AppState.ERROR);
                     setUIBusy(false);
                     updateStatusLabel("构建失败", true);
@@ -470,10 +535,8 @@ public class MainController implements Initializable {
         // 显示进度条
         progressBar.setVisible(true);
         
-        // 启动构建任务
-        Thread buildThread = new Thread(buildTask);
-        buildThread.setDaemon(true);
-        buildThread.start();
+        // 在共享的background线程池中启动构建任务
+        TaskExecutors.background().run(buildTask);
     }
     
     /**
@@ -487,7 +550,8 @@ public class MainController implements Initializable {
             .noManPages(noManPagesCheckBox.isSelected())
             .noHeaderFiles(noHeaderFilesCheckBox.isSelected())
             .compressionLevel(Integer.parseInt(compressionLevelComboBox.getValue()))
-            .enableAdvancedFeatures(enableAdvancedFeaturesCheckBox.isSelected());
+            .enableAdvancedFeatures(enableAdvancedFeaturesCheckBox.isSelected())
+            .jreCacheDirectory(CacheDirectories.jre(CacheDirectories.root()));
         
         // JavaFX配置
         boolean enableJavaFx = enableJavafxCheckBox.isSelected();
@@ -514,12 +578,10 @@ public class MainController implements Initializable {
         TreeItem<String> root = new TreeItem<>("依赖关系分析结果");
         root.setExpanded(true);
         
-        // 添加必需模块
-        TreeItem<String> modulesItem = new TreeItem<>("必需模块 (" + currentAnalysis.getRequiredModules().size() + ")");
+        // 添加必需模块，模块 → 包 → 类 → 依赖 在展开时才创建
+        DependencyTreeModel treeModel = new DependencyTreeModel(currentAnalysis);
+        TreeItem<String> modulesItem = treeModel.createModulesItem();
         modulesItem.setExpanded(true);
-        for (String module : currentAnalysis.getRequiredModules()) {
-            modulesItem.getChildren().add(new TreeItem<>(module));
-        }
         root.getChildren().add(modulesItem);
         
         // 添加JAR信息
@@ -536,6 +598,9 @@ public class MainController implements Initializable {
         
         root.getChildren().add(jarInfoItem);
         
+        // 按包浏览JAR中的全部类
+        root.getChildren().add(treeModel.createClassesItem());
+        
         dependencyTreeView.setRoot(root);
     }
     
@@ -548,6 +613,7 @@ public class MainController implements Initializable {
         browseJarButton.setDisable(busy);
         browseOutputButton.setDisable(busy);
         browseJavafxButton.setDisable(busy);
+        cancelButton.setDisable(!busy);
         
         progressBar.setVisible(busy);
     }
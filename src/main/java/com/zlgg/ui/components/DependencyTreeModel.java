@@ -0,0 +1,225 @@
+package com.zlgg.ui.components;
+
+import com.zlgg.analyzer.ModuleLookupCache;
+import com.zlgg.model.AnalysisResult;
+import com.zlgg.model.DependencyGraph;
+import com.zlgg.model.SymbolTable;
+import com.zlgg.util.ModuleMapper;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * 依赖关系树的懒加载模型
+ * 层次为 模块 → 包 → 类 → 依赖：模块节点下是引用了该模块的类所在的包，类节点下是该类引用的属于该模块的类；
+ * "JAR中的类"节点按同样的 包 → 类 → 依赖 层次浏览全部类及其所有依赖。
+ * 子节点只在首次展开时直接从紧凑的依赖图（CSR）创建，未展开的部分不占用任何节点，
+ * 包含十万个类的JAR也不会在界面线程中一次性创建大量TreeItem
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+public class DependencyTreeModel {
+    
+    private final AnalysisResult result;
+    private final DependencyGraph graph;
+    private final SymbolTable symbols;
+    // 依赖符号 -> 所属模块，与分析时使用同样的按符号编号的查找缓存
+    private final ModuleLookupCache moduleLookup;
+    // 模块 -> 引用了该模块的类，首次展开模块节点时一次计算
+    private Map<String, BitSet> classesByModule;
+    
+    public DependencyTreeModel(AnalysisResult result) {
+        this.result = result;
+        this.graph = result.getDependencyGraph();
+        this.symbols = graph.getSymbols();
+        this.moduleLookup = new ModuleLookupCache(new ModuleMapper(), symbols);
+    }
+    
+    /**
+     * 必需模块节点，每个模块可展开为引用它的包和类；
+     * 没有类直接引用、由运行时/高级功能/Spring Boot等规则自动添加的模块标注为自动添加，不能展开
+     */
+    public TreeItem<String> createModulesItem() {
+        TreeItem<String> modulesItem = new TreeItem<>("必需模块 (" + result.getRequiredModules().size() + ")");
+        for (String module : new TreeSet<>(result.getRequiredModules())) {
+            BitSet classes = classesUsing(module);
+            if (classes.isEmpty()) {
+                modulesItem.getChildren().add(new LazyTreeItem(module + " (自动添加)", true, null));
+            } else {
+                modulesItem.getChildren().add(new LazyTreeItem(module, false, () -> packageItems(classes, module)));
+            }
+        }
+        return modulesItem;
+    }
+    
+    /**
+     * JAR中的类节点，按包浏览全部类及其依赖
+     */
+    public TreeItem<String> createClassesItem() {
+        int classCount = graph.getClassCount();
+        return new LazyTreeItem("JAR中的类 (" + classCount + ")", classCount == 0, () -> {
+            BitSet allClasses = new BitSet(classCount);
+            allClasses.set(0, classCount);
+            return packageItems(allClasses, null);
+        });
+    }
+    
+    /**
+     * 按包分组的节点
+     *
+     * @param module 只显示属于该模块的依赖，为null时显示全部依赖
+     */
+    private List<TreeItem<String>> packageItems(BitSet classes, String module) {
+        Map<String, IntList> classesByPackage = new TreeMap<>();
+        for (int classIndex = classes.nextSetBit(0); classIndex >= 0; classIndex = classes.nextSetBit(classIndex + 1)) {
+            String className = graph.getClassName(classIndex);
+            int packageEnd = className.lastIndexOf('.');
+            String packageName = packageEnd > 0 ? className.substring(0, packageEnd) : "";
+            classesByPackage.computeIfAbsent(packageName, p -> new IntList()).add(classIndex);
+        }
+        
+        List<TreeItem<String>> items = new ArrayList<>(classesByPackage.size());
+        classesByPackage.forEach((packageName, packageClasses) -> {
+            String label = (packageName.isEmpty() ? "(默认包)" : packageName) + " (" + packageClasses.size + ")";
+            items.add(new LazyTreeItem(label, false, () -> classItems(packageClasses, module)));
+        });
+        return items;
+    }
+    
+    /**
+     * 包中的类节点，按类名排序
+     */
+    private List<TreeItem<String>> classItems(IntList classes, String module) {
+        int[] sorted = classes.toArray();
+        String[] names = new String[sorted.length];
+        Integer[] order = new Integer[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            names[i] = graph.getClassName(sorted[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> names[a].compareTo(names[b]));
+        
+        List<TreeItem<String>> items = new ArrayList<>(sorted.length);
+        for (int position : order) {
+            int classIndex = sorted[position];
+            String className = names[position];
+            int dependencyCount = module == null ? graph.getDependencyCount(classIndex) : countDependencies(classIndex, module);
+            String label = className.substring(className.lastIndexOf('.') + 1) + " (" + dependencyCount + " 个依赖)";
+            items.add(new LazyTreeItem(label, dependencyCount == 0, () -> dependencyItems(classIndex, module)));
+        }
+        return items;
+    }
+    
+    /**
+     * 类的依赖节点，按名称排序
+     */
+    private List<TreeItem<String>> dependencyItems(int classIndex, String module) {
+        List<String> dependencies = new ArrayList<>(graph.getDependencyCount(classIndex));
+        for (int k = 0; k < graph.getDependencyCount(classIndex); k++) {
+            int symbol = graph.getDependency(classIndex, k);
+            if (module == null || module.equals(moduleOf(symbol))) {
+                dependencies.add(symbols.name(symbol));
+            }
+        }
+        dependencies.sort(null);
+        
+        List<TreeItem<String>> items = new ArrayList<>(dependencies.size());
+        for (String dependency : dependencies) {
+            items.add(new TreeItem<>(dependency));
+        }
+        return items;
+    }
+    
+    private int countDependencies(int classIndex, String module) {
+        int count = 0;
+        for (int k = 0; k < graph.getDependencyCount(classIndex); k++) {
+            if (module.equals(moduleOf(graph.getDependency(classIndex, k)))) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * 引用了指定模块的类
+     */
+    private BitSet classesUsing(String module) {
+        if (classesByModule == null) {
+            // 一次遍历所有依赖边，得到每个模块被哪些类引用
+            Map<String, BitSet> index = new HashMap<>();
+            for (int classIndex = 0; classIndex < graph.getClassCount(); classIndex++) {
+                for (int k = 0; k < graph.getDependencyCount(classIndex); k++) {
+                    String dependencyModule = moduleOf(graph.getDependency(classIndex, k));
+                    if (dependencyModule != null) {
+                        index.computeIfAbsent(dependencyModule, m -> new BitSet()).set(classIndex);
+                    }
+                }
+            }
+            classesByModule = index;
+        }
+        return classesByModule.getOrDefault(module, new BitSet());
+    }
+    
+    private String moduleOf(int symbol) {
+        return moduleLookup.moduleFor(symbol);
+    }
+    
+    /**
+     * 首次访问子节点（即首次展开）时才创建子节点的树节点
+     */
+    private static final class LazyTreeItem extends TreeItem<String> {
+        
+        private final boolean leaf;
+        private Supplier<List<TreeItem<String>>> childrenFactory;
+        
+        LazyTreeItem(String value, boolean leaf, Supplier<List<TreeItem<String>>> childrenFactory) {
+            super(value);
+            this.leaf = leaf;
+            this.childrenFactory = leaf ? null : childrenFactory;
+        }
+        
+        @Override
+        public boolean isLeaf() {
+            return leaf;
+        }
+        
+        @Override
+        public ObservableList<TreeItem<String>> getChildren() {
+            if (childrenFactory != null) {
+                Supplier<List<TreeItem<String>>> factory = childrenFactory;
+                childrenFactory = null;
+                super.getChildren().setAll(factory.get());
+            }
+            return super.getChildren();
+        }
+    }
+    
+    /**
+     * 类节点下标列表
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+        
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.zlgg.ui.components;
 
 import cn.hutool.core.date.DateUtil;
-import com.zlgg.store.AppStore;
+import com.zlgg.util.LogSink;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
+import javafx.collections.ObservableList;
 import javafx.scene.Node;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.HBox;
@@ -13,27 +15,65 @@ import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextFlow;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 日志显示组件
- * 提供线程安全的日志显示功能，支持自动滚动和日志清理
+ * 提供线程安全的日志显示功能，支持自动滚动和日志清理。
+ * 任意线程写入的日志先进入无锁队列，写入方从不阻塞；JavaFX应用线程按固定帧率取出队列中的全部日志，
+ * 每帧只做一次批量追加。界面上最多保留最新的 MAX_LOG_ENTRIES 条日志（环形缓冲区），
+ * jlink输出数千行时只为最终可见的日志创建节点
  * 
  * @author zlgg
  * @version 1.0
  */
-public class LogArea {
+public class LogArea implements LogSink {
     private final ScrollPane scrollPane;
     private final TextFlow textFlow;
     private final VBox container;
     private boolean editable = true;
     
-    // 日志条目计数
-    private final AtomicInteger logCount = new AtomicInteger(0);
-    // 默认最大日志条目数（可以根据需要调整）
+    // 界面上保留的最大日志条目数（可以根据需要调整）
     private static final int MAX_LOG_ENTRIES = 1000;
-    // 清理阈值，当超过这个值时进行清理
-    private static final int CLEANUP_THRESHOLD = 800;
+    // 两次刷新之间的最小间隔（每秒最多刷新20次）
+    private static final long FRAME_INTERVAL_NANOS = 50_000_000L;
+    // 队列中的清空标记
+    private static final LogEntry CLEAR = new LogEntry(0, null, null, false);
+    
+    private final Font font = Font.font("Consolas", 12);
+    
+    // 等待显示的日志，任意线程写入
+    private final Queue<LogEntry> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AnimationTimer drainTimer;
+    private long lastDrainNanos;
+    
+    // 已显示日志条目的节点数（环形缓冲区），只在JavaFX应用线程中访问
+    private final int[] entryNodeCounts = new int[MAX_LOG_ENTRIES];
+    private int firstEntry;
+    private int entryCount;
+    
+    /**
+     * 一条待显示的日志
+     */
+    private static final class LogEntry {
+        final long timestamp;
+        final String text;
+        final Color color;
+        final boolean timestamped;
+        
+        LogEntry(long timestamp, String text, Color color, boolean timestamped) {
+            this.timestamp = timestamp;
+            this.text = text;
+            this.color = color;
+            this.timestamped = timestamped;
+        }
+    }
 
     public LogArea() {
         // 创建文本流容器
@@ -73,6 +113,26 @@ public class LogArea {
         textFlow.heightProperty().addListener((observable, oldValue, newValue) -> {
             Platform.runLater(() -> scrollPane.setVvalue(1.0));
         });
+        
+        // 只在有待显示的日志时运行，空闲时不占用界面刷新
+        drainTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (now - lastDrainNanos < FRAME_INTERVAL_NANOS) {
+                    return;
+                }
+                lastDrainNanos = now;
+                drain();
+                if (pending.isEmpty()) {
+                    stop();
+                    drainScheduled.set(false);
+                    // 停止前后可能又有新日志写入
+                    if (!pending.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+                        start();
+                    }
+                }
+            }
+        };
     }
 
     /**
@@ -99,112 +159,134 @@ public class LogArea {
     /**
      * 记录信息日志
      */
+    @Override
     public void logInfo(String message) {
-        log(createLogEntry(message, Color.LIGHTGREEN));
+        log(message, Color.LIGHTGREEN);
     }
 
     /**
      * 记录错误日志
      */
+    @Override
     public void logError(String message) {
-        log(createLogEntry(message, Color.LIGHTCORAL));
+        log(message, Color.LIGHTCORAL);
     }
 
     /**
      * 记录警告日志
      */
+    @Override
     public void logWarning(String message) {
-        log(createLogEntry(message, Color.ORANGE));
+        log(message, Color.ORANGE);
     }
 
     /**
      * 记录调试日志
      */
     public void logDebug(String message) {
-        log(createLogEntry(message, Color.LIGHTBLUE));
+        log(message, Color.LIGHTBLUE);
     }
 
     /**
      * 记录成功日志
      */
+    @Override
     public void logSuccess(String message) {
-        log(createLogEntry(message, Color.LIGHTGREEN));
+        log(message, Color.LIGHTGREEN);
     }
 
     /**
-     * 创建日志条目
+     * 记录日志，可在任意线程中调用，不会阻塞
      */
-    private Text[] createLogEntry(String message, Color color) {
-        // 创建时间戳
-        Text timestamp = new Text("[" + DateUtil.format(DateUtil.date(), "HH:mm:ss") + "] ");
-        timestamp.setFont(Font.font("Consolas", 12));
-        timestamp.setFill(Color.LIGHTGRAY);
-        
-        // 创建消息文本
-        Text messageText = new Text(message + "\n");
-        messageText.setFont(Font.font("Consolas", 12));
-        messageText.setFill(color);
-        
-        return new Text[]{timestamp, messageText};
+    private void log(String message, Color color) {
+        enqueue(new LogEntry(System.currentTimeMillis(), message + "\n", color, true));
     }
-
+    
     /**
-     * 检查并清理日志
+     * 清空日志
      */
-    private void checkAndCleanupLogs() {
-        if (logCount.get() > MAX_LOG_ENTRIES) {
-            Platform.runLater(() -> {
-                try {
-                    AppStore.lock.lock();
-                    // 保留最新的 CLEANUP_THRESHOLD 条日志
-                    int totalNodes = textFlow.getChildren().size();
-                    int nodesToRemove = totalNodes - (CLEANUP_THRESHOLD * 2); // 每条日志有2个节点（时间戳和消息）
-                    if (nodesToRemove > 0) {
-                        textFlow.getChildren().remove(0, nodesToRemove);
-                        logCount.set(CLEANUP_THRESHOLD);
-                    }
-                } finally {
-                    AppStore.lock.unlock();
-                }
-            });
+    public void clear() {
+        enqueue(CLEAR);
+    }
+    
+    private void enqueue(LogEntry entry) {
+        pending.offer(entry);
+        if (drainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(drainTimer::start);
         }
     }
-
+    
     /**
-     * 记录日志
+     * 把队列中的日志一次性显示到界面上，只能在JavaFX应用线程中调用
      */
-    private void log(Text... texts) {
-        Platform.runLater(() -> {
-            try {
-                AppStore.lock.lock();
-                textFlow.getChildren().addAll(texts);
-                logCount.incrementAndGet();
-                checkAndCleanupLogs();
-            } finally {
-                AppStore.lock.unlock();
+    private void drain() {
+        boolean cleared = false;
+        List<LogEntry> batch = new ArrayList<>();
+        LogEntry entry;
+        while ((entry = pending.poll()) != null) {
+            if (entry == CLEAR) {
+                cleared = true;
+                batch.clear();
+            } else {
+                batch.add(entry);
             }
-        });
+        }
+        if (!cleared && batch.isEmpty()) {
+            return;
+        }
+        
+        // 本批超过容量时，只有最后 MAX_LOG_ENTRIES 条会显示出来
+        int from = Math.max(0, batch.size() - MAX_LOG_ENTRIES);
+        int added = batch.size() - from;
+        int removedEntries = cleared ? entryCount : Math.max(0, entryCount + added - MAX_LOG_ENTRIES);
+        int removedNodes = 0;
+        for (int i = 0; i < removedEntries; i++) {
+            removedNodes += entryNodeCounts[firstEntry];
+            firstEntry = (firstEntry + 1) % MAX_LOG_ENTRIES;
+        }
+        entryCount -= removedEntries;
+        
+        List<Node> nodes = new ArrayList<>(added * 2);
+        for (int i = from; i < batch.size(); i++) {
+            int nodesBefore = nodes.size();
+            createNodes(batch.get(i), nodes);
+            entryNodeCounts[(firstEntry + entryCount) % MAX_LOG_ENTRIES] = nodes.size() - nodesBefore;
+            entryCount++;
+        }
+        
+        ObservableList<Node> children = textFlow.getChildren();
+        if (removedNodes >= children.size()) {
+            children.setAll(nodes);
+        } else {
+            children.remove(0, removedNodes);
+            children.addAll(nodes);
+        }
     }
-
+    
     /**
-     * 清空日志
+     * 创建日志条目的文本节点：时间戳（可选）和消息
      */
-    public void clear() {
-        Platform.runLater(() -> {
-            try {
-                AppStore.lock.lock();
-                textFlow.getChildren().clear();
-                logCount.set(0);
-            } finally {
-                AppStore.lock.unlock();
-            }
-        });
+    private void createNodes(LogEntry entry, List<Node> nodes) {
+        if (entry.timestamped) {
+            Text timestamp = new Text("[" + DateUtil.format(new Date(entry.timestamp), "HH:mm:ss") + "] ");
+            timestamp.setFont(font);
+            timestamp.setFill(Color.LIGHTGRAY);
+            nodes.add(timestamp);
+        }
+        Text messageText = new Text(entry.text);
+        messageText.setFont(font);
+        messageText.setFill(entry.color);
+        nodes.add(messageText);
     }
-
+    
     /**
      * 获取日志内容
      */
     public String getLog() {
+        // 在界面线程中读取时先显示尚未刷新的日志
+        if (Platform.isFxApplicationThread()) {
+            drain();
+        }
         StringBuilder content = new StringBuilder();
         for (Node node : textFlow.getChildren()) {
             if (node instanceof Text) {
@@ -225,19 +307,9 @@ public class LogArea {
      * 追加原始文本（不带时间戳）
      */
     public void appendText(String text, Color color) {
-        Platform.runLater(() -> {
-            try {
-                AppStore.lock.lock();
-                Text textNode = new Text(text);
-                textNode.setFont(Font.font("Consolas", 12));
-                textNode.setFill(color);
-                textFlow.getChildren().add(textNode);
-            } finally {
-                AppStore.lock.unlock();
-            }
-        });
+        enqueue(new LogEntry(0, text, color, false));
     }
-
+    
     /**
      * 追加换行
      */
@@ -0,0 +1,52 @@
+package com.zlgg.util;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 缓存目录
+ * 所有持久化缓存都保存在同一个根目录下的子目录中，默认不使用任何缓存，不会在工作目录下留下文件。
+ * 根目录通过系统属性jregenerate.cache.dir（图形界面和命令行）或命令行参数--cache-dir指定
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+public final class CacheDirectories {
+    
+    /**
+     * 指定缓存根目录的系统属性
+     */
+    public static final String ROOT_PROPERTY = "jregenerate.cache.dir";
+    
+    private CacheDirectories() {
+    }
+    
+    /**
+     * 系统属性指定的缓存根目录，未指定时返回null（不使用缓存）
+     */
+    public static Path root() {
+        String root = System.getProperty(ROOT_PROPERTY);
+        return root != null && !root.isBlank() ? Paths.get(root) : null;
+    }
+    
+    /**
+     * 根目录下的JAR分析缓存目录，root为null时返回null
+     */
+    public static Path analysis(Path root) {
+        return root != null ? root.resolve("analysis") : null;
+    }
+    
+    /**
+     * 根目录下的JRE构建缓存目录，root为null时返回null
+     */
+    public static Path jre(Path root) {
+        return root != null ? root.resolve("jre") : null;
+    }
+    
+    /**
+     * 根目录下的JDK包索引目录，root为null时返回null
+     */
+    public static Path modules(Path root) {
+        return root != null ? root.resolve("modules") : null;
+    }
+}
@@ -0,0 +1,111 @@
+package com.zlgg.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * 取消令牌
+ * 分析和构建过程在阶段之间、类文件批次之间和内嵌JAR之间检查令牌，发现已取消时抛出CancellationException；
+ * 无法轮询的外部进程（jlink、jdeps）通过onCancel注册回调，取消时立即结束整个进程树。
+ * 令牌只能取消一次，可以在任意线程中调用cancel()
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+public final class CancellationToken {
+    
+    private static final CancellationToken NONE = new CancellationToken(false);
+    
+    /**
+     * 注册的取消回调，关闭后不再执行
+     */
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+    
+    private final boolean cancellable;
+    private final List<Runnable> callbacks = new ArrayList<>();
+    private volatile boolean cancelled;
+    
+    public CancellationToken() {
+        this(true);
+    }
+    
+    private CancellationToken(boolean cancellable) {
+        this.cancellable = cancellable;
+    }
+    
+    /**
+     * 永远不会被取消的令牌，用于不需要取消的调用
+     */
+    public static CancellationToken none() {
+        return NONE;
+    }
+    
+    /**
+     * 请求取消，已注册的回调在当前线程中依次执行
+     */
+    public void cancel() {
+        if (!cancellable) {
+            return;
+        }
+        List<Runnable> toRun;
+        synchronized (callbacks) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            toRun = new ArrayList<>(callbacks);
+            callbacks.clear();
+        }
+        for (Runnable callback : toRun) {
+            callback.run();
+        }
+    }
+    
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * 已取消时抛出CancellationException
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("操作已取消");
+        }
+    }
+    
+    /**
+     * 注册取消回调；令牌已取消时立即在当前线程中执行
+     */
+    public Registration onCancel(Runnable callback) {
+        if (!cancellable) {
+            return () -> { };
+        }
+        synchronized (callbacks) {
+            if (!cancelled) {
+                callbacks.add(callback);
+                return () -> {
+                    synchronized (callbacks) {
+                        callbacks.remove(callback);
+                    }
+                };
+            }
+        }
+        callback.run();
+        return () -> { };
+    }
+    
+    /**
+     * 取消时强制结束进程及其所有子进程
+     */
+    public Registration destroyOnCancel(Process process) {
+        return onCancel(() -> {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+        });
+    }
+}
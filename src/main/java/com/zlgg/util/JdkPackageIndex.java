@@ -0,0 +1,201 @@
+package com.zlgg.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.module.ModuleDescriptor;
+import java.lang.module.ModuleFinder;
+import java.lang.module.ModuleReference;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDK包索引
+ * 从当前JDK的系统模块（ModuleFinder.ofSystem()，与JREBuilder使用的jmods来自同一个JDK）
+ * 读取每个模块包含的包，得到精确的"包名 -> 模块"映射，不随JDK版本过时。
+ * 指定了索引目录时结果以紧凑的二进制格式保存在磁盘上，以JDK的路径、版本和模块镜像的大小、修改时间为键，
+ * 之后启动时直接读取索引文件，不需要重新扫描
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class JdkPackageIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JdkPackageIndex.class);
+    
+    private static final int MAGIC = 0x4A524D49; // "JRMI"
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_SUFFIX = ".idx";
+    
+    // 同一进程中JDK不会变化，索引只加载一次
+    private static volatile Map<String, String> systemPackages;
+    
+    private JdkPackageIndex() {
+    }
+    
+    /**
+     * 获取当前JDK的包映射（只读）
+     *
+     * @param directory 索引文件目录，为null时不读写索引文件
+     */
+    static Map<String, String> systemPackages(Path directory) {
+        Map<String, String> packages = systemPackages;
+        if (packages == null) {
+            synchronized (JdkPackageIndex.class) {
+                packages = systemPackages;
+                if (packages == null) {
+                    packages = Collections.unmodifiableMap(load(directory));
+                    systemPackages = packages;
+                }
+            }
+        }
+        return packages;
+    }
+    
+    private static Map<String, String> load(Path directory) {
+        long startTime = System.nanoTime();
+        Path file = directory != null ? directory.resolve(key() + FILE_SUFFIX) : null;
+        if (file != null) {
+            Map<String, String> packages = read(file);
+            if (packages != null) {
+                logger.debug("已读取JDK包索引: {}，{} 个包，耗时 {}ms", file, packages.size(),
+                             (System.nanoTime() - startTime) / 1_000_000);
+                return packages;
+            }
+        }
+        
+        Map<String, String> packages = scan();
+        logger.debug("已扫描JDK系统模块: {} 个包，耗时 {}ms", packages.size(), (System.nanoTime() - startTime) / 1_000_000);
+        if (file != null) {
+            write(file, packages);
+        }
+        return packages;
+    }
+    
+    /**
+     * 扫描系统模块
+     */
+    static Map<String, String> scan() {
+        Map<String, String> packages = new HashMap<>();
+        for (ModuleReference reference : ModuleFinder.ofSystem().findAll()) {
+            ModuleDescriptor descriptor = reference.descriptor();
+            for (String packageName : descriptor.packages()) {
+                packages.put(packageName, descriptor.name());
+            }
+        }
+        return packages;
+    }
+    
+    /**
+     * 索引文件名：JDK版本加上JDK路径、供应商以及模块镜像（lib/modules）大小和修改时间的哈希，
+     * 同一路径下的JDK被升级或替换后索引自然失效。
+     * 这里不使用SHA-256，避免为了一个文件名在启动时加载安全提供者
+     */
+    static String key() {
+        StringBuilder identity = new StringBuilder();
+        String javaHome = System.getProperty("java.home");
+        identity.append(javaHome).append('\n');
+        identity.append(System.getProperty("java.vendor")).append('\n');
+        Path modulesImage = Paths.get(javaHome, "lib", "modules");
+        try {
+            identity.append(Files.size(modulesImage)).append(' ')
+                    .append(Files.getLastModifiedTime(modulesImage).toMillis());
+        } catch (IOException e) {
+            identity.append('?');
+        }
+        String version = System.getProperty("java.runtime.version").replaceAll("[^A-Za-z0-9.+-]", "_");
+        return "jdk-" + version + "-" + Integer.toHexString(identity.toString().hashCode());
+    }
+    
+    /**
+     * 读取索引文件，不存在、版本不匹配或损坏时返回null
+     * 文件格式：magic, version；模块名列表；包列表（包名、模块下标）
+     */
+    private static Map<String, String> read(Path file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                logger.debug("JDK包索引版本不匹配，忽略: {}", file);
+                return null;
+            }
+            String[] modules = new String[in.readUnsignedShort()];
+            for (int i = 0; i < modules.length; i++) {
+                modules[i] = in.readUTF();
+            }
+            int packageCount = in.readInt();
+            Map<String, String> packages = new HashMap<>(packageCount * 4 / 3 + 1);
+            for (int i = 0; i < packageCount; i++) {
+                String packageName = in.readUTF();
+                packages.put(packageName, modules[in.readUnsignedShort()]);
+            }
+            return packages;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("读取JDK包索引失败，将重新扫描: {}, 错误: {}", file, e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 写入索引文件，先写临时文件再原子替换
+     */
+    private static void write(Path file, Map<String, String> packages) {
+        Map<String, Integer> moduleIndex = new HashMap<>();
+        List<String> modules = new ArrayList<>();
+        for (String module : packages.values()) {
+            moduleIndex.computeIfAbsent(module, m -> {
+                modules.add(m);
+                return modules.size() - 1;
+            });
+        }
+        
+        Path tempFile = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tempFile = Files.createTempFile(file.getParent(), "jdk-packages", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeShort(modules.size());
+                for (String module : modules) {
+                    out.writeUTF(module);
+                }
+                out.writeInt(packages.size());
+                for (Map.Entry<String, String> entry : packages.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeShort(moduleIndex.get(entry.getValue()));
+                }
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tempFile = null;
+        } catch (IOException e) {
+            logger.warn("写入JDK包索引失败: {}, 错误: {}", file, e.getMessage());
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    logger.debug("无法删除临时文件: {}", tempFile);
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.zlgg.util;
 
-import com.zlgg.ui.components.LogArea;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,12 +13,12 @@ import org.slf4j.LoggerFactory;
 public class LogManager {
     
     private static final Logger logger = LoggerFactory.getLogger(LogManager.class);
-    private static LogArea uiLogArea;
+    private static volatile LogSink uiLogArea;
     
     /**
-     * 设置UI日志区域
+     * 设置UI日志区域（命令行模式下为控制台输出）
      */
-    public static void setUILogArea(LogArea logArea) {
+    public static void setUILogArea(LogSink logArea) {
         uiLogArea = logArea;
     }
     
@@ -0,0 +1,20 @@
+package com.zlgg.util;
+
+/**
+ * 面向用户的日志输出目标
+ * 图形界面中由日志区域实现，命令行模式下输出到控制台；
+ * LogManager只依赖这个接口，不会加载任何JavaFX类
+ * 
+ * @author zlgg
+ * @version 1.0
+ */
+public interface LogSink {
+    
+    void logInfo(String message);
+    
+    void logWarning(String message);
+    
+    void logError(String message);
+    
+    void logSuccess(String message);
+}
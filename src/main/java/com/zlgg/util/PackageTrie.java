@@ -0,0 +1,126 @@
+package com.zlgg.util;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 包名前缀字典树
+ * 把"包名 -> 模块"映射预编译为按字符展开的扁平数组，查找时只对类名做一次从左到右的遍历：
+ * 每遇到一个'.'就检查当前节点是否对应一个完整的包名，记录最长的匹配，
+ * 遍历到类名最后一个'.'（即包名结束）或没有后续节点时停止。
+ * 整个过程不创建子字符串、不计算哈希，也不分配任何对象
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+final class PackageTrie {
+    
+    // 第i个节点的子节点边位于 edgeChars/edgeTargets 的 [childStart[i], childStart[i + 1]) 区间，按字符排序
+    private final int[] childStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    // 节点对应完整包名时的模块，否则为null
+    private final String[] modules;
+    
+    PackageTrie(Map<String, String> packageToModule) {
+        // 排序后共享同一前缀的包名相邻，按广度优先顺序逐个节点划分区间即可得到扁平数组，
+        // 节点数不超过包名字符总数加一
+        String[] keys = packageToModule.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        int capacity = 1;
+        for (String key : keys) {
+            capacity += key.length();
+        }
+        
+        // 第i个节点覆盖 keys 的 [rangeStart[i], rangeEnd[i]) 区间，这些包名的前 depth[i] 个字符相同
+        int[] rangeStart = new int[capacity];
+        int[] rangeEnd = new int[capacity];
+        int[] depth = new int[capacity];
+        int[] starts = new int[capacity + 1];
+        char[] chars = new char[capacity];
+        int[] targets = new int[capacity];
+        String[] nodeModules = new String[capacity];
+        
+        rangeEnd[0] = keys.length;
+        int nodeCount = 1;
+        int edge = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            int from = rangeStart[node];
+            int to = rangeEnd[node];
+            int d = depth[node];
+            starts[node] = edge;
+            if (from < to && keys[from].length() == d) {
+                nodeModules[node] = packageToModule.get(keys[from]);
+                from++;
+            }
+            while (from < to) {
+                char c = keys[from].charAt(d);
+                int end = from + 1;
+                while (end < to && keys[end].charAt(d) == c) {
+                    end++;
+                }
+                chars[edge] = c;
+                targets[edge] = nodeCount;
+                edge++;
+                rangeStart[nodeCount] = from;
+                rangeEnd[nodeCount] = end;
+                depth[nodeCount] = d + 1;
+                nodeCount++;
+                from = end;
+            }
+        }
+        starts[nodeCount] = edge;
+        
+        childStart = Arrays.copyOf(starts, nodeCount + 1);
+        edgeChars = Arrays.copyOf(chars, edge);
+        edgeTargets = Arrays.copyOf(targets, edge);
+        modules = Arrays.copyOf(nodeModules, nodeCount);
+    }
+    
+    /**
+     * 查找类所在包或其最近的父包对应的模块
+     *
+     * @param className 点分形式的完整类名
+     * @return 模块名，没有匹配的包时返回null
+     */
+    String find(String className) {
+        int packageEnd = className.lastIndexOf('.');
+        if (packageEnd <= 0) {
+            return null;
+        }
+        String match = null;
+        int node = 0;
+        for (int i = 0; i < packageEnd; i++) {
+            char c = className.charAt(i);
+            if (c == '.' && modules[node] != null) {
+                match = modules[node];
+            }
+            node = child(node, c);
+            if (node < 0) {
+                return match;
+            }
+        }
+        return modules[node] != null ? modules[node] : match;
+    }
+    
+    /**
+     * 节点数量
+     */
+    int size() {
+        return modules.length;
+    }
+    
+    private int child(int node, char c) {
+        // 绝大多数节点只有一个子节点，分支最多的节点也只有几十个，顺序查找即可
+        for (int edge = childStart[node], end = childStart[node + 1]; edge < end; edge++) {
+            char edgeChar = edgeChars[edge];
+            if (edgeChar == c) {
+                return edgeTargets[edge];
+            }
+            if (edgeChar > c) {
+                break;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,209 @@
+package com.zlgg.util;
+
+import java.util.function.Consumer;
+
+/**
+ * 进度上报器
+ * 分析和构建过程中的进度先汇总到这里，再按时间间隔和最小变化量合并后交给回调：
+ * 每个类文件都更新一次进度，但界面每秒只会收到有限次数的回调。
+ * 子阶段用child(weight)按顺序划分父级的进度区间，子阶段内部只需上报0-1的完成比例，
+ * 各阶段所占的比例集中在创建子阶段的地方，不再散落在各处的百分比计算中。
+ * 没有回调时也可以随时通过getProgress()读取当前进度（命令行、指标统计）。
+ * 进度只增不减，可以在多个线程中上报
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+public final class ProgressReporter {
+    
+    private static final long DEFAULT_MIN_INTERVAL_MS = 50;
+    private static final double DEFAULT_MIN_DELTA = 0.005;
+    
+    // 根上报器持有回调和合并状态，子阶段只记录自己在父级中的区间
+    private final ProgressReporter root;
+    private final ProgressReporter parent;
+    private final double start;
+    private final double weight;
+    
+    private final Consumer<Double> callback;
+    private final double scale;
+    private final long minIntervalNanos;
+    private final double minDelta;
+    
+    private volatile double progress;
+    private double reported = -1;
+    private long reportedNanos;
+    // 下一个子阶段在本级区间中的起点
+    private double nextChildStart;
+    
+    private ProgressReporter(Builder builder) {
+        this.root = this;
+        this.parent = null;
+        this.start = 0.0;
+        this.weight = 1.0;
+        this.callback = builder.callback;
+        this.scale = builder.scale;
+        this.minIntervalNanos = builder.minIntervalMs * 1_000_000L;
+        this.minDelta = builder.minDelta;
+    }
+    
+    private ProgressReporter(ProgressReporter parent, double start, double weight) {
+        this.root = parent.root;
+        this.parent = parent;
+        this.start = start;
+        this.weight = weight;
+        this.callback = null;
+        this.scale = 1.0;
+        this.minIntervalNanos = 0;
+        this.minDelta = 0;
+    }
+    
+    /**
+     * 使用默认合并参数，回调收到的进度为 0-scale（例如scale为100时是百分比）
+     */
+    public static ProgressReporter of(Consumer<Double> callback, double scale) {
+        return builder().callback(callback).scale(scale).build();
+    }
+    
+    /**
+     * 没有回调的上报器，只能通过getProgress()读取进度
+     */
+    public static ProgressReporter silent() {
+        return builder().build();
+    }
+    
+    /**
+     * 按顺序划分下一个子阶段
+     *
+     * @param weight 子阶段占本级进度的比例（0-1），各子阶段之和不应超过1
+     */
+    public ProgressReporter child(double weight) {
+        if (weight < 0 || weight > 1) {
+            throw new IllegalArgumentException("子阶段比例必须在0-1之间: " + weight);
+        }
+        synchronized (root) {
+            double childStart = nextChildStart;
+            nextChildStart = Math.min(1.0, nextChildStart + weight);
+            return new ProgressReporter(this, childStart, Math.min(weight, 1.0 - childStart));
+        }
+    }
+    
+    /**
+     * 上报本级的完成比例（0-1），按合并规则决定是否通知回调
+     */
+    public void update(double fraction) {
+        propagate(clamp(fraction), false);
+    }
+    
+    /**
+     * 本级完成，立即通知回调（阶段边界不受合并规则影响）
+     */
+    public void complete() {
+        propagate(1.0, true);
+    }
+    
+    /**
+     * 以Consumer的形式上报本级完成比例（0-1），用于接收进度回调的已有接口
+     */
+    public Consumer<Double> asConsumer() {
+        return this::update;
+    }
+    
+    /**
+     * 整体进度（0-1）
+     */
+    public double getProgress() {
+        return root.progress;
+    }
+    
+    private void propagate(double fraction, boolean force) {
+        if (parent == null) {
+            root.set(fraction, force);
+        } else {
+            parent.propagate(start + fraction * weight, force);
+        }
+    }
+    
+    private void set(double value, boolean force) {
+        double toReport;
+        synchronized (this) {
+            if (value < progress || (value == progress && !force)) {
+                return;
+            }
+            progress = value;
+            if (callback == null || value == reported) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (!force && value < 1.0
+                    && (value - reported < minDelta || now - reportedNanos < minIntervalNanos)) {
+                return;
+            }
+            reported = value;
+            reportedNanos = now;
+            toReport = value * scale;
+        }
+        // 回调可能比较耗时（例如切换到界面线程），不在锁内调用
+        callback.accept(toReport);
+    }
+    
+    private static double clamp(double fraction) {
+        return fraction < 0 ? 0 : Math.min(fraction, 1.0);
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    public static class Builder {
+        private Consumer<Double> callback;
+        private double scale = 1.0;
+        private long minIntervalMs = DEFAULT_MIN_INTERVAL_MS;
+        private double minDelta = DEFAULT_MIN_DELTA;
+        
+        /**
+         * 进度回调，为null时不通知
+         */
+        public Builder callback(Consumer<Double> callback) {
+            this.callback = callback;
+            return this;
+        }
+        
+        /**
+         * 回调收到的进度范围为 0-scale
+         */
+        public Builder scale(double scale) {
+            if (scale <= 0) {
+                throw new IllegalArgumentException("进度范围必须大于0: " + scale);
+            }
+            this.scale = scale;
+            return this;
+        }
+        
+        /**
+         * 两次回调之间的最小间隔（毫秒）
+         */
+        public Builder minIntervalMs(long minIntervalMs) {
+            if (minIntervalMs < 0) {
+                throw new IllegalArgumentException("回调间隔不能为负数: " + minIntervalMs);
+            }
+            this.minIntervalMs = minIntervalMs;
+            return this;
+        }
+        
+        /**
+         * 触发回调的最小进度变化（0-1）
+         */
+        public Builder minDelta(double minDelta) {
+            if (minDelta < 0 || minDelta > 1) {
+                throw new IllegalArgumentException("最小进度变化必须在0-1之间: " + minDelta);
+            }
+            this.minDelta = minDelta;
+            return this;
+        }
+        
+        public ProgressReporter build() {
+            return new ProgressReporter(this);
+        }
+    }
+}
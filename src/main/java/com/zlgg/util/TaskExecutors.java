@@ -0,0 +1,275 @@
+package com.zlgg.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 共享的任务执行层
+ * 整个应用只使用以下几个命名线程池，不再为每次分析、构建或进程输出单独创建线程：
+ * - analysis：CPU密集的类文件批次和内嵌JAR分析（工作窃取线程池）
+ * - io：子进程输出读取、后台jdeps等只等待外部资源的任务，这些任务不会再等待其他线程池中的任务
+ * - background：界面中的分析/构建任务和批量分析的JAR工作线程，只等待analysis和io中的任务
+ * - scheduler：定时任务（jlink进度估算）
+ * 线程数可以通过系统属性（jregenerate.threads.analysis/io/background）或命令行参数调整，
+ * 必须在第一次使用线程池之前设置。所有线程都是守护线程，空闲时io和background的线程会退出
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+public final class TaskExecutors {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskExecutors.class);
+    
+    private static final long IDLE_SECONDS = 60;
+    
+    /**
+     * 线程数设置
+     */
+    public static final class Settings {
+        private final int analysisThreads;
+        private final int ioThreads;
+        private final int backgroundThreads;
+        
+        private Settings(Builder builder) {
+            this.analysisThreads = builder.analysisThreads;
+            this.ioThreads = builder.ioThreads;
+            this.backgroundThreads = builder.backgroundThreads;
+        }
+        
+        /**
+         * 默认设置，可被系统属性覆盖
+         */
+        public static Settings fromSystemProperties() {
+            return builder()
+                .analysisThreads(Integer.getInteger("jregenerate.threads.analysis", defaultAnalysisThreads()))
+                .ioThreads(Integer.getInteger("jregenerate.threads.io", defaultIoThreads()))
+                .backgroundThreads(Integer.getInteger("jregenerate.threads.background", defaultBackgroundThreads()))
+                .build();
+        }
+        
+        public int getAnalysisThreads() {
+            return analysisThreads;
+        }
+        
+        public int getIoThreads() {
+            return ioThreads;
+        }
+        
+        public int getBackgroundThreads() {
+            return backgroundThreads;
+        }
+        
+        public Builder toBuilder() {
+            return builder()
+                .analysisThreads(analysisThreads)
+                .ioThreads(ioThreads)
+                .backgroundThreads(backgroundThreads);
+        }
+        
+        public static Builder builder() {
+            return new Builder();
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Settings)) {
+                return false;
+            }
+            Settings that = (Settings) o;
+            return analysisThreads == that.analysisThreads && ioThreads == that.ioThreads
+                && backgroundThreads == that.backgroundThreads;
+        }
+        
+        @Override
+        public int hashCode() {
+            return (analysisThreads * 31 + ioThreads) * 31 + backgroundThreads;
+        }
+        
+        @Override
+        public String toString() {
+            return "Settings{analysis=" + analysisThreads + ", io=" + ioThreads
+                + ", background=" + backgroundThreads + '}';
+        }
+        
+        public static class Builder {
+            private int analysisThreads = defaultAnalysisThreads();
+            private int ioThreads = defaultIoThreads();
+            private int backgroundThreads = defaultBackgroundThreads();
+            
+            /**
+             * analysis线程池的线程数，即所有分析合计的最大并发度
+             */
+            public Builder analysisThreads(int analysisThreads) {
+                if (analysisThreads < 1) {
+                    throw new IllegalArgumentException("analysis线程数必须大于0: " + analysisThreads);
+                }
+                this.analysisThreads = analysisThreads;
+                return this;
+            }
+            
+            /**
+             * io线程池的线程数；每个子进程需要两个线程分别读取标准输出和错误输出
+             */
+            public Builder ioThreads(int ioThreads) {
+                if (ioThreads < 2) {
+                    throw new IllegalArgumentException("io线程数不能小于2: " + ioThreads);
+                }
+                this.ioThreads = ioThreads;
+                return this;
+            }
+            
+            /**
+             * background线程池的线程数，即同时进行的分析/构建任务数量上限
+             */
+            public Builder backgroundThreads(int backgroundThreads) {
+                if (backgroundThreads < 1) {
+                    throw new IllegalArgumentException("background线程数必须大于0: " + backgroundThreads);
+                }
+                this.backgroundThreads = backgroundThreads;
+                return this;
+            }
+            
+            public Settings build() {
+                return new Settings(this);
+            }
+        }
+    }
+    
+    private static Settings settings;
+    private static TaskPool analysis;
+    private static TaskPool io;
+    private static TaskPool background;
+    private static ScheduledExecutorService scheduler;
+    
+    private TaskExecutors() {
+    }
+    
+    /**
+     * 设置线程数，必须在第一次使用线程池之前调用
+     *
+     * @throws IllegalStateException 线程池已经按其他设置创建
+     */
+    public static synchronized void configure(Settings newSettings) {
+        if (newSettings == null) {
+            throw new IllegalArgumentException("线程池设置不能为空");
+        }
+        if (analysis != null && !newSettings.equals(settings)) {
+            throw new IllegalStateException("线程池已经创建，无法修改设置: " + settings);
+        }
+        settings = newSettings;
+    }
+    
+    /**
+     * 当前的线程数设置
+     */
+    public static synchronized Settings getSettings() {
+        if (settings == null) {
+            settings = Settings.fromSystemProperties();
+        }
+        return settings;
+    }
+    
+    /**
+     * CPU密集任务的线程池
+     */
+    public static TaskPool analysis() {
+        ensureStarted();
+        return analysis;
+    }
+    
+    /**
+     * 子进程输出读取等阻塞I/O任务的线程池
+     */
+    public static TaskPool io() {
+        ensureStarted();
+        return io;
+    }
+    
+    /**
+     * 界面任务和批量分析工作线程的线程池
+     */
+    public static TaskPool background() {
+        ensureStarted();
+        return background;
+    }
+    
+    /**
+     * 共享的定时任务线程
+     */
+    public static ScheduledExecutorService scheduler() {
+        ensureStarted();
+        return scheduler;
+    }
+    
+    /**
+     * 各线程池的运行统计
+     */
+    public static List<TaskPool.Stats> stats() {
+        ensureStarted();
+        return List.of(analysis.stats(), io.stats(), background.stats());
+    }
+    
+    private static synchronized void ensureStarted() {
+        if (analysis != null) {
+            return;
+        }
+        Settings current = getSettings();
+        AtomicInteger analysisIndex = new AtomicInteger();
+        ForkJoinPool analysisPool = new ForkJoinPool(current.getAnalysisThreads(), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("jre-analysis-" + analysisIndex.incrementAndGet());
+            return thread;
+        }, null, false);
+        analysis = new TaskPool("analysis", current.getAnalysisThreads(), analysisPool);
+        io = new TaskPool("io", current.getIoThreads(), newElasticPool("jre-io-", current.getIoThreads()));
+        background = new TaskPool("background", current.getBackgroundThreads(),
+                                  newElasticPool("jre-background-", current.getBackgroundThreads()));
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("jre-scheduler-"));
+        logger.debug("创建共享线程池: {}", current);
+    }
+    
+    /**
+     * 固定线程数上限、空闲线程自动退出的线程池，任务超出线程数时排队
+     */
+    private static ThreadPoolExecutor newElasticPool(String namePrefix, int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, IDLE_SECONDS, TimeUnit.SECONDS,
+                                                             new LinkedBlockingQueue<>(), daemonThreads(namePrefix));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+    
+    private static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private static int defaultAnalysisThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+    
+    private static int defaultIoThreads() {
+        return Math.max(4, Runtime.getRuntime().availableProcessors());
+    }
+    
+    private static int defaultBackgroundThreads() {
+        return Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+}
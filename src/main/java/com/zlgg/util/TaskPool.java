@@ -0,0 +1,148 @@
+package com.zlgg.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 命名的共享线程池
+ * 包装一个线程池，统计排队中和执行中的任务数量（包括峰值）以及完成的任务数，
+ * 通过TaskExecutors获取，不需要也不能关闭
+ *
+ * @author zlgg
+ * @version 1.0
+ */
+public final class TaskPool {
+    
+    /**
+     * 线程池的运行统计
+     */
+    public static final class Stats {
+        private final String name;
+        private final int threads;
+        private final int queuedTasks;
+        private final int activeTasks;
+        private final int peakQueuedTasks;
+        private final int peakActiveTasks;
+        private final long completedTasks;
+        
+        Stats(String name, int threads, int queuedTasks, int activeTasks,
+              int peakQueuedTasks, int peakActiveTasks, long completedTasks) {
+            this.name = name;
+            this.threads = threads;
+            this.queuedTasks = queuedTasks;
+            this.activeTasks = activeTasks;
+            this.peakQueuedTasks = peakQueuedTasks;
+            this.peakActiveTasks = peakActiveTasks;
+            this.completedTasks = completedTasks;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        /**
+         * 线程数上限
+         */
+        public int getThreads() {
+            return threads;
+        }
+        
+        /**
+         * 已提交但尚未开始的任务数（队列深度）
+         */
+        public int getQueuedTasks() {
+            return queuedTasks;
+        }
+        
+        /**
+         * 正在执行的任务数
+         */
+        public int getActiveTasks() {
+            return activeTasks;
+        }
+        
+        public int getPeakQueuedTasks() {
+            return peakQueuedTasks;
+        }
+        
+        public int getPeakActiveTasks() {
+            return peakActiveTasks;
+        }
+        
+        public long getCompletedTasks() {
+            return completedTasks;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s: %d 个线程, 排队 %d (峰值 %d), 执行中 %d (峰值 %d), 已完成 %d",
+                                 name, threads, queuedTasks, peakQueuedTasks, activeTasks, peakActiveTasks,
+                                 completedTasks);
+        }
+    }
+    
+    private final String name;
+    private final int threads;
+    private final ExecutorService executor;
+    
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peakQueued = new AtomicInteger();
+    private final AtomicInteger peakActive = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    
+    TaskPool(String name, int threads, ExecutorService executor) {
+        this.name = name;
+        this.threads = threads;
+        this.executor = executor;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int getThreads() {
+        return threads;
+    }
+    
+    /**
+     * 在线程池中执行有返回值的任务
+     * 任务抛出的异常在join()时以CompletionException包装抛出
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        peakQueued.accumulateAndGet(queued.incrementAndGet(), Math::max);
+        return CompletableFuture.supplyAsync(() -> {
+            queued.decrementAndGet();
+            peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                return task.get();
+            } finally {
+                active.decrementAndGet();
+                completed.increment();
+            }
+        }, executor);
+    }
+    
+    /**
+     * 在线程池中执行没有返回值的任务
+     */
+    public CompletableFuture<Void> run(Runnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+    
+    public Stats stats() {
+        return new Stats(name, threads, queued.get(), active.get(), peakQueued.get(), peakActive.get(),
+                         completed.sum());
+    }
+    
+    @Override
+    public String toString() {
+        return stats().toString();
+    }
+}